@@ -8,6 +8,8 @@ import com.TPM.User.Auth.user.Token;
 import com.TPM.User.Auth.user.TokenRepository;
 import com.TPM.User.Auth.user.User;
 import com.TPM.User.Auth.user.UserRepository;
+import com.TPM.User.Auth.user.event.UserChangeOutbox;
+import com.TPM.User.Auth.user.event.UserChangeType;
 import com.TPM.User.Auth.user.security.JwtService;
 import jakarta.mail.MessagingException;
 import jakarta.transaction.Transactional;
@@ -36,6 +38,7 @@ public class AuthenticationService {
     private final RoleRepository roleRepository;
     private final EmailService emailService;
     private final TokenRepository tokenRepository;
+    private final UserChangeOutbox userChangeOutbox;
 
     @Value("${application.mailing.frontend.activation-url}")
     private String activationUrl;
@@ -57,6 +60,7 @@ public class AuthenticationService {
                 .roles(List.of(userRole))
                 .build();
         userRepository.save(user);
+        userChangeOutbox.recordUserChange(user, null, UserChangeType.USER_CREATED);
         sendValidationEmail(user);
     }
 
@@ -114,6 +118,8 @@ public class AuthenticationService {
         var claims = new HashMap<String, Object>();
         var user = ((User) auth.getPrincipal());
         claims.put("fullName", user.fullName());
+        // Lets other services identify the caller without asking this service
+        claims.put("userId", user.getId());
 
         var jwtToken = jwtService.generateToken(claims, (User) auth.getPrincipal());
         return AuthenticationResponse.builder().token(jwtToken).build();
@@ -131,6 +137,7 @@ public class AuthenticationService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         user.setEnabled(true);
         userRepository.save(user);
+        userChangeOutbox.recordUserChange(user, UserChangeType.USER_UPDATED);
 
         savedToken.setValidatedAt(LocalDateTime.now());
         tokenRepository.save(savedToken);
@@ -1,9 +1,16 @@
 package com.TPM.User.Auth.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository  extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u FROM User u WHERE NOT EXISTS " +
+           "(SELECT 1 FROM UserOutboxEvent e WHERE e.userId = u.id) ORDER BY u.id")
+    List<User> findWithoutOutboxEvents(Pageable pageable);
 }
@@ -0,0 +1,48 @@
+package com.TPM.User.Auth.user.event;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Broker-less stand-in transport: pushes each batch straight to the subscribing services
+ * over HTTP. Replacing it with a message broker only needs another {@link UserChangePublisher}.
+ */
+@Slf4j
+@Component
+public class HttpUserChangePublisher implements UserChangePublisher {
+
+    private final RestClient restClient = RestClient.create();
+
+    @Value("${application.user-events.subscriber-urls}")
+    private List<String> subscriberUrls;
+
+    @Value("${application.user-events.key}")
+    private String eventsKey;
+
+    @PostConstruct
+    void checkKey() {
+        if (eventsKey.isBlank()) {
+            throw new IllegalStateException("application.user-events.key must not be blank");
+        }
+    }
+
+    @Override
+    public void publish(List<UserChangeEvent> events) {
+        for (String url : subscriberUrls) {
+            restClient.post()
+                    .uri(url)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Events-Key", eventsKey)
+                    .body(events)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.debug("Delivered {} user change events to {}", events.size(), url);
+        }
+    }
+}
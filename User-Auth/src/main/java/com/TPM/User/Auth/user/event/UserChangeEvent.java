@@ -0,0 +1,29 @@
+package com.TPM.User.Auth.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the public user data other services replicate locally.
+ * {@code eventId} is the outbox id and increases monotonically, so subscribers can use it
+ * to ignore stale or re-delivered events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+    private Long eventId;
+    private UserChangeType type;
+    private Integer userId;
+    private String firstname;
+    private String lastname;
+    private String position;
+    private String profileImageUrl;
+    private boolean enabled;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,57 @@
+package com.TPM.User.Auth.user.event;
+
+import com.TPM.User.Auth.user.User;
+import com.TPM.User.Auth.user.profile.UserProfile;
+import com.TPM.User.Auth.user.profile.UserProfileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class UserChangeOutbox {
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records the current state of the user in the outbox. Joins the caller's transaction,
+     * so the event is only published if the change itself commits.
+     */
+    @Transactional
+    public void recordUserChange(User user, UserChangeType type) {
+        UserProfile profile = userProfileRepository.findByUserId(user.getId()).orElse(null);
+        recordUserChange(user, profile, type);
+    }
+
+    @Transactional
+    public void recordUserChange(User user, UserProfile profile, UserChangeType type) {
+        LocalDateTime now = LocalDateTime.now();
+        UserChangeEvent event = UserChangeEvent.builder()
+                .type(type)
+                .userId(user.getId())
+                .firstname(user.getFirstname())
+                .lastname(user.getLastname())
+                .position(profile != null ? profile.getPosition() : null)
+                .profileImageUrl(profile != null ? profile.getProfileImageUrl() : null)
+                .enabled(user.isEnabled())
+                .occurredAt(now)
+                .build();
+
+        try {
+            userOutboxRepository.save(UserOutboxEvent.builder()
+                    .userId(user.getId())
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(now)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user change event for user " + user.getId(), e);
+        }
+    }
+}
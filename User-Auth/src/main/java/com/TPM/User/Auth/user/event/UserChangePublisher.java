@@ -0,0 +1,11 @@
+package com.TPM.User.Auth.user.event;
+
+import java.util.List;
+
+/**
+ * Transport used by {@link UserOutboxRelay} to deliver user change events.
+ * Implementations must throw if delivery failed so the batch is retried.
+ */
+public interface UserChangePublisher {
+    void publish(List<UserChangeEvent> events);
+}
@@ -0,0 +1,7 @@
+package com.TPM.User.Auth.user.event;
+
+public enum UserChangeType {
+    USER_CREATED,
+    USER_UPDATED,
+    PROFILE_UPDATED
+}
@@ -0,0 +1,61 @@
+package com.TPM.User.Auth.user.event;
+
+import com.TPM.User.Auth.user.User;
+import com.TPM.User.Auth.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Writes a USER_CREATED snapshot to the outbox for every user that has no outbox row yet, so
+ * subscribers' replicas also cover users created before the outbox existed. Only such users are
+ * touched, so once the existing users are covered later startups find nothing to do.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.user-events.enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxBackfill {
+    private static final int PAGE_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final UserChangeOutbox userChangeOutbox;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserOutboxBackfill(UserRepository userRepository, UserChangeOutbox userChangeOutbox,
+                              PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userChangeOutbox = userChangeOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int total = 0;
+            int written;
+            do {
+                written = transactionTemplate.execute(status -> {
+                    List<User> users = userRepository.findWithoutOutboxEvents(PageRequest.of(0, PAGE_SIZE));
+                    users.forEach(user -> userChangeOutbox.recordUserChange(user, UserChangeType.USER_CREATED));
+                    return users.size();
+                });
+                total += written;
+            } while (written == PAGE_SIZE);
+
+            if (total > 0) {
+                log.info("Backfilled user change outbox with {} existing users", total);
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling user change outbox: {}", e.getMessage(), e);
+        }
+    }
+}
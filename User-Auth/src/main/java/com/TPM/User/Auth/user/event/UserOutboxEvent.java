@@ -0,0 +1,59 @@
+package com.TPM.User.Auth.user.event;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row describing a change to a user or their profile. Rows are written in the same
+ * transaction as the change itself and relayed to subscribers by {@link UserOutboxRelay}.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_outbox",
+       indexes = @Index(name = "idx_user_outbox_unpublished", columnList = "publishedAt, id"))
+public class UserOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserChangeType type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+
+    private int attempts;
+
+    // Not offered to other relays before this time: set while a relay delivers the row and after a failed delivery
+    private LocalDateTime claimedUntil;
+
+    // Set when the row is given up on; parked rows are never delivered again
+    private LocalDateTime parkedAt;
+}
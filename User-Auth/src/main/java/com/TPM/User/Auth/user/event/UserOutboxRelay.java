@@ -0,0 +1,135 @@
+package com.TPM.User.Auth.user.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polls the outbox and hands unpublished events to the {@link UserChangePublisher} in id order.
+ * Delivery is at-least-once. Rows are claimed in a short transaction (FOR UPDATE SKIP LOCKED plus
+ * a claim timeout), so several instances never send the same batch, and the network call runs
+ * after that transaction has committed. A failed row is retried on its own with exponential
+ * backoff, so it cannot hold back later events, and parked after {@code max-attempts} failures.
+ * Rows whose payload cannot be read are parked straight away.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.user-events.enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+    private static final int BATCH_SIZE = 100;
+
+    private final UserOutboxRepository userOutboxRepository;
+    private final UserChangePublisher userChangePublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.user-events.poll-interval:5000}")
+    private long pollInterval;
+
+    @Value("${application.user-events.claim-timeout:2m}")
+    private Duration claimTimeout;
+
+    @Value("${application.user-events.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${application.user-events.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    public UserOutboxRelay(UserOutboxRepository userOutboxRepository, UserChangePublisher userChangePublisher,
+                           ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.userChangePublisher = userChangePublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${application.user-events.poll-interval:5000}")
+    public void relay() {
+        List<UserOutboxEvent> batch = claim();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<UserOutboxEvent> fresh = new ArrayList<>(batch.size());
+        for (UserOutboxEvent row : batch) {
+            if (row.getAttempts() == 0) {
+                fresh.add(row);
+            } else {
+                publish(List.of(row));
+            }
+        }
+        if (!fresh.isEmpty()) {
+            publish(fresh);
+        }
+    }
+
+    private List<UserOutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<UserOutboxEvent> rows = userOutboxRepository.findClaimable(now, BATCH_SIZE);
+            rows.forEach(row -> row.setClaimedUntil(now.plus(claimTimeout)));
+            return rows;
+        });
+    }
+
+    private void publish(List<UserOutboxEvent> rows) {
+        List<UserChangeEvent> events = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (UserOutboxEvent row : rows) {
+            try {
+                UserChangeEvent event = objectMapper.readValue(row.getPayload(), UserChangeEvent.class);
+                event.setEventId(row.getId());
+                events.add(event);
+                ids.add(row.getId());
+            } catch (JsonProcessingException e) {
+                log.error("Parking user change event {}: payload cannot be read: {}", row.getId(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> userOutboxRepository.park(row.getId(), LocalDateTime.now()));
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            userChangePublisher.publish(events);
+        } catch (Exception e) {
+            log.warn("Could not publish {} user change events, will retry: {}", events.size(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailure(ids));
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> userOutboxRepository.markPublished(ids, LocalDateTime.now()));
+        log.info("Published {} user change events", events.size());
+    }
+
+    private void recordFailure(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (UserOutboxEvent row : userOutboxRepository.findAllById(ids)) {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            if (attempts >= maxAttempts) {
+                log.error("Parking user change event {} after {} failed deliveries", row.getId(), attempts);
+                row.setParkedAt(now);
+                row.setClaimedUntil(null);
+            } else {
+                row.setClaimedUntil(now.plus(backoff(attempts)));
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = Duration.ofMillis(pollInterval).multipliedBy(1L << Math.min(attempts, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
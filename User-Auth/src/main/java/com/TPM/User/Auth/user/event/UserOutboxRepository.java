@@ -0,0 +1,29 @@
+package com.TPM.User.Auth.user.event;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    // SKIP LOCKED lets concurrent relays claim disjoint batches instead of waiting for or repeating each other's
+    @Query(value = "SELECT * FROM user_outbox " +
+                   "WHERE published_at IS NULL AND parked_at IS NULL " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UserOutboxEvent> findClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE UserOutboxEvent e SET e.publishedAt = :publishedAt, e.claimedUntil = NULL WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE UserOutboxEvent e SET e.parkedAt = :parkedAt, e.claimedUntil = NULL WHERE e.id = :id")
+    int park(@Param("id") Long id, @Param("parkedAt") LocalDateTime parkedAt);
+}
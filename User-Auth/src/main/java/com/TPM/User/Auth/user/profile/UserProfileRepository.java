@@ -1,9 +1,19 @@
 package com.TPM.User.Auth.user.profile;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, Integer> {
     Optional<UserProfile> findByUserId(Integer userId);
+
+    @Query("SELECT new com.TPM.User.Auth.user.profile.UserSummaryResponse(" +
+           "u.id, u.firstname, u.lastname, p.position, p.profileImageUrl) " +
+           "FROM User u LEFT JOIN UserProfile p ON p.user = u " +
+           "WHERE u.id IN :userIds")
+    List<UserSummaryResponse> findSummariesByUserIdIn(@Param("userIds") Collection<Integer> userIds);
 } 
\ No newline at end of file
@@ -2,17 +2,23 @@ package com.TPM.User.Auth.user.profile;
 
 import com.TPM.User.Auth.user.User;
 import com.TPM.User.Auth.user.UserRepository;
+import com.TPM.User.Auth.user.event.UserChangeOutbox;
+import com.TPM.User.Auth.user.event.UserChangeType;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserProfileService {
 
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final UserChangeOutbox userChangeOutbox;
 
     @Transactional(readOnly = true)
     public UserProfile getUserProfile(Integer userId) {
@@ -20,6 +26,14 @@ public class UserProfileService {
                 .orElseThrow(() -> new EntityNotFoundException("Profile not found for user: " + userId));
     }
 
+    @Transactional(readOnly = true)
+    public List<UserSummaryResponse> getUserSummaries(Collection<Integer> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        return userProfileRepository.findSummariesByUserIdIn(userIds);
+    }
+
     @Transactional
     public UserProfile getOrCreateUserProfile(Integer userId) {
         return userProfileRepository.findByUserId(userId)
@@ -33,7 +47,9 @@ public class UserProfileService {
 
         UserProfile profile = getOrCreateUserProfile(userId);
         updateProfileFromRequest(profile, request);
-        return userProfileRepository.save(profile);
+        UserProfile savedProfile = userProfileRepository.save(profile);
+        userChangeOutbox.recordUserChange(user, savedProfile, UserChangeType.PROFILE_UPDATED);
+        return savedProfile;
     }
 
     @Transactional
@@ -0,0 +1,29 @@
+package com.TPM.User.Auth.user.profile;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Outside auth/**, so the security filter chain requires a valid token
+@RestController
+@RequestMapping("users")
+@RequiredArgsConstructor
+public class UserSummaryController {
+    private static final int MAX_IDS = 500;
+
+    private final UserProfileService userProfileService;
+
+    /**
+     * Returns the display summary (name, position, avatar) of several users in one call,
+     * so that other services can enrich lists of user ids without one request per user.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<UserSummaryResponse>> getUserSummaries(@RequestParam("ids") List<Integer> ids) {
+        if (ids.size() > MAX_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userProfileService.getUserSummaries(ids));
+    }
+}
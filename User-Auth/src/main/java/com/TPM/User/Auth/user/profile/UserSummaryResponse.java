@@ -0,0 +1,18 @@
+package com.TPM.User.Auth.user.profile;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryResponse {
+    private Integer id;
+    private String firstname;
+    private String lastname;
+    private String position;
+    private String profileImageUrl;
+}
@@ -3,7 +3,7 @@ package com.TPM.User.Auth;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "application.user-events.key=test-events-key")
 class ApplicationTests {
 
 	@Test
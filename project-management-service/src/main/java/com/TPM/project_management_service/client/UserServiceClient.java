@@ -11,9 +11,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
 
 
 @Component
@@ -29,6 +32,10 @@ public interface UserServiceClient {
     @GetMapping("auth/users/{userId}/exists")
     boolean userExists(@PathVariable Integer userId, @RequestHeader("Authorization") String token);
 
+    @GetMapping("users/summaries")
+    List<UserSummaryResponse> getUserSummaries(@RequestParam("ids") Collection<Integer> ids,
+                                               @RequestHeader("Authorization") String token);
+
     @Slf4j
     @Component
     class UserServiceFallback implements UserServiceClient {
@@ -46,6 +53,13 @@ public interface UserServiceClient {
             log.warn("Fallback: Assuming user {} exists due to auth service issues", userId);
             return true;
         }
+
+        @Override
+        public List<UserSummaryResponse> getUserSummaries(Collection<Integer> ids, String token) {
+            // Enrichment is best-effort: callers still get the member rows, just without names
+            log.warn("Fallback: Could not get summaries for {} users from auth service", ids.size());
+            return List.of();
+        }
     }
 
     @Slf4j
@@ -0,0 +1,19 @@
+package com.TPM.project_management_service.client;
+
+import lombok.Data;
+
+@Data
+public class UserSummaryResponse {
+    private Integer id;
+    private String firstname;
+    private String lastname;
+    private String position;
+    private String profileImageUrl;
+
+    public String getDisplayName() {
+        String first = firstname != null ? firstname : "";
+        String last = lastname != null ? lastname : "";
+        String fullName = (first + " " + last).trim();
+        return fullName.isEmpty() ? null : fullName;
+    }
+}
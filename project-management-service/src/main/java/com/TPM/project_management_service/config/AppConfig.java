@@ -1,5 +1,17 @@
 package com.TPM.project_management_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -8,14 +20,81 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.Arrays;
 
 @Configuration
 public class AppConfig {
 
+    /**
+     * Connection pool behind the RestTemplate. Connections are kept alive and reused, limited in
+     * total and per host, and connecting or waiting for data is bounded; pool usage is published
+     * as httpcomponents.httpclient.pool.* metrics.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager restConnectionManager(
+            @Value("${application.http-client.max-total:50}") int maxTotal,
+            @Value("${application.http-client.max-per-route:20}") int maxPerRoute,
+            @Value("${application.http-client.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${application.http-client.read-timeout:60s}") Duration readTimeout,
+            @Value("${application.http-client.connection-ttl:5m}") Duration connectionTtl,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        // Pooled connections idle this long are checked before reuse
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "rest-template").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient restHttpClient(
+            PoolingHttpClientConnectionManager restConnectionManager,
+            @Value("${application.http-client.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${application.http-client.read-timeout:60s}") Duration readTimeout,
+            @Value("${application.http-client.idle-timeout:30s}") Duration idleTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(restConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // How long a caller waits for a free connection when the pool is exhausted
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    /**
+     * Built through RestTemplateBuilder so every call is timed as http.client.requests. On top of
+     * the connect and read timeouts, a request still running after the total timeout is aborted,
+     * so a server trickling bytes cannot hold a thread either.
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient restHttpClient,
+                                     @Value("${application.http-client.total-timeout:90s}") Duration totalTimeout) {
+        return restTemplateBuilder
+                .requestFactory(() -> new DeadlineHttpRequestFactory(restHttpClient, totalTimeout))
+                .build();
+    }
+
+    /**
+     * Non-blocking client for streamed AI completions; responses are consumed on callbacks, so no
+     * thread waits while the model is generating.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient aiHttpClient(@Value("${application.ai.connect-timeout:5s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
     }
 
     @Bean
@@ -0,0 +1,113 @@
+package com.TPM.project_management_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Small dedicated pool for background project purges, so large deletions never compete
+     * with request threads and only a bounded number run against the database at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor projectPurgeExecutor(
+            @Value("${application.project-deletion.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("project-purge-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the independent read queries of composite endpoints (e.g. the project dashboard) in
+     * parallel. When saturated the request thread runs the query itself instead of failing.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(
+            @Value("${application.dashboard.workers:8}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes asynchronous MVC responses such as streamed exports. Defining our own executors
+     * switches off Boot's default one, so MVC would otherwise spawn a thread per request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(
+            @Value("${application.mvc-async.workers:16}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs queued AI plan generations. Model calls take seconds, so they are kept off request
+     * threads and limited to a few at a time; when the queue is full new jobs are refused.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor aiPlanExecutor(
+            @Value("${application.ai.workers:4}") int workers,
+            @Value("${application.ai.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-plan-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs bulk AI plan batches. Separate from aiPlanExecutor, so a large bulk run waiting on the
+     * bulk rate limiter never delays single plan jobs.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor aiBulkExecutor(
+            @Value("${application.ai.bulk.workers:2}") int workers,
+            @Value("${application.ai.bulk.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-bulk-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread for one-off data maintenance started at boot, such as backfills.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor maintenanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("maintenance-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,141 @@
+package com.TPM.project_management_service.config;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request factory that aborts every request still running after a total deadline, covering the
+ * wait for a connection, connecting, and reading the whole response. Aborting closes the
+ * connection, so the blocked caller fails with an I/O error and its thread is released. The
+ * deadline is cancelled as soon as the response is closed or the exchange fails, so finished
+ * requests do not stay queued until it would have fired.
+ */
+class DeadlineHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+    private static final ScheduledThreadPoolExecutor DEADLINES = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "http-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        DEADLINES.setRemoveOnCancelPolicy(true);
+    }
+
+    // Hands the deadline scheduled in createHttpUriRequest to createRequest, which calls it on the same thread
+    private final ThreadLocal<ScheduledFuture<?>> scheduledDeadline = new ThreadLocal<>();
+
+    private final Duration totalTimeout;
+
+    DeadlineHttpRequestFactory(HttpClient httpClient, Duration totalTimeout) {
+        super(httpClient);
+        this.totalTimeout = totalTimeout;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        try {
+            ClientHttpRequest request = super.createRequest(uri, httpMethod);
+            ScheduledFuture<?> deadline = scheduledDeadline.get();
+            return deadline != null ? new DeadlineRequest(request, deadline) : request;
+        } catch (IOException | RuntimeException e) {
+            ScheduledFuture<?> deadline = scheduledDeadline.get();
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            throw e;
+        } finally {
+            scheduledDeadline.remove();
+        }
+    }
+
+    @Override
+    protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+        if (request instanceof HttpUriRequestBase abortable) {
+            scheduledDeadline.set(DEADLINES.schedule(abortable::cancel, totalTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        return request;
+    }
+
+    private static final class DeadlineRequest extends HttpRequestWrapper implements ClientHttpRequest {
+        private final ClientHttpRequest request;
+        private final ScheduledFuture<?> deadline;
+
+        private DeadlineRequest(ClientHttpRequest request, ScheduledFuture<?> deadline) {
+            super(request);
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            try {
+                return new DeadlineResponse(request.execute(), deadline);
+            } catch (IOException | RuntimeException e) {
+                deadline.cancel(false);
+                throw e;
+            }
+        }
+    }
+
+    private static final class DeadlineResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final ScheduledFuture<?> deadline;
+
+        private DeadlineResponse(ClientHttpResponse response, ScheduledFuture<?> deadline) {
+            this.response = response;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+    }
+}
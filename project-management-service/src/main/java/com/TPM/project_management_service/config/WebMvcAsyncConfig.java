@@ -0,0 +1,29 @@
+package com.TPM.project_management_service.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+    private final Duration requestTimeout;
+
+    public WebMvcAsyncConfig(@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor,
+                             @Value("${application.mvc-async.request-timeout:30m}") Duration requestTimeout) {
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+        // Long exports keep writing well past the servlet container's default async timeout
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+}
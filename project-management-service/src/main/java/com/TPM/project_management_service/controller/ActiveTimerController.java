@@ -0,0 +1,27 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.ActiveTimerResponse;
+import com.TPM.project_management_service.service.TimeTrackingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/time-tracking")
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveTimerController {
+    private final TimeTrackingService timeTrackingService;
+
+    @GetMapping("/running")
+    public ResponseEntity<ActiveTimerResponse> getRunningTimer(
+            @RequestHeader("Authorization") String token) {
+        return timeTrackingService.getRunningTimer(token)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
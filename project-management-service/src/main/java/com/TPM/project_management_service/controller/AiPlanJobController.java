@@ -0,0 +1,53 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.AiPlanJobResponse;
+import com.TPM.project_management_service.model.AiPlanJobStatus;
+import com.TPM.project_management_service.service.AiPlanJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/projects/{projectId}/tasks/{taskId}/ai-plan/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class AiPlanJobController {
+    private final AiPlanJobService aiPlanJobService;
+
+    @PostMapping
+    public ResponseEntity<AiPlanJobResponse> submitJob(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "false") boolean regenerate,
+            @RequestHeader("Authorization") String token) {
+        log.info("Queueing AI plan job for task {} in project {}", taskId, projectId);
+        AiPlanJobResponse job = aiPlanJobService.submitJob(projectId, taskId, regenerate, token);
+        // Only a job refused by a full queue is already failed on submission
+        HttpStatus status = job.getStatus() == AiPlanJobStatus.FAILED ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<AiPlanJobResponse> getJob(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @PathVariable Long jobId,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting AI plan job {} for task {}", jobId, taskId);
+        return ResponseEntity.ok(aiPlanJobService.getJob(projectId, taskId, jobId, token));
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @PathVariable Long jobId,
+            @RequestHeader("Authorization") String token) {
+        log.info("Subscribing to AI plan job {} for task {}", jobId, taskId);
+        return aiPlanJobService.subscribe(projectId, taskId, jobId, token);
+    }
+}
@@ -0,0 +1,26 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.service.AiPlanStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/projects/{projectId}/tasks/{taskId}/ai-plan/stream")
+@RequiredArgsConstructor
+@Slf4j
+public class AiPlanStreamController {
+    private final AiPlanStreamService aiPlanStreamService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPlan(
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestParam(defaultValue = "false") boolean regenerate,
+            @RequestHeader("Authorization") String token) {
+        log.info("Streaming AI plan for task {} in project {}", taskId, projectId);
+        return aiPlanStreamService.streamPlan(projectId, taskId, regenerate, token);
+    }
+}
@@ -0,0 +1,27 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.BulkAiPlanRequest;
+import com.TPM.project_management_service.dto.BulkAiPlanResponse;
+import com.TPM.project_management_service.service.AiPlanJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/projects/{projectId}/ai-plan/bulk")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkAiPlanController {
+    private final AiPlanJobService aiPlanJobService;
+
+    @PostMapping
+    public ResponseEntity<BulkAiPlanResponse> submitBulk(
+            @PathVariable Long projectId,
+            @RequestBody BulkAiPlanRequest request,
+            @RequestHeader("Authorization") String token) {
+        log.info("Queueing bulk AI plans for project {}", projectId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(aiPlanJobService.submitBulk(projectId, request, token));
+    }
+}
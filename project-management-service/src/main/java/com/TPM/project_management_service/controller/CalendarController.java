@@ -2,17 +2,25 @@ package com.TPM.project_management_service.controller;
 
 import com.TPM.project_management_service.dto.CalendarEventRequest;
 import com.TPM.project_management_service.dto.CalendarEventResponse;
-import com.TPM.project_management_service.model.ProjectCalendar;
+import com.TPM.project_management_service.dto.CalendarFeedResponse;
+import com.TPM.project_management_service.dto.ProjectCalendarResponse;
+import com.TPM.project_management_service.service.CalendarFeedService;
 import com.TPM.project_management_service.service.CalendarService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/projects/{projectId}/calendar")
@@ -20,9 +28,10 @@ import java.util.List;
 @Slf4j
 public class CalendarController {
     private final CalendarService calendarService;
+    private final CalendarFeedService calendarFeedService;
 
     @PostMapping
-    public ResponseEntity<ProjectCalendar> createCalendar(
+    public ResponseEntity<ProjectCalendarResponse> createCalendar(
             @PathVariable Long projectId,
             @RequestParam String name,
             @RequestParam(required = false) String description,
@@ -45,8 +54,8 @@ public class CalendarController {
     @GetMapping("/events")
     public ResponseEntity<List<CalendarEventResponse>> getEvents(
             @PathVariable Long projectId,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
             @RequestHeader("Authorization") String token) {
         log.info("Getting events for project calendar {}", projectId);
         return ResponseEntity.ok(calendarService.getCalendarEvents(projectId, start, end, token));
@@ -71,4 +80,36 @@ public class CalendarController {
         calendarService.deleteEvent(projectId, eventId, token);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/feed-token")
+    public ResponseEntity<CalendarFeedResponse> getFeedToken(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "false") boolean rotate,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting calendar feed token for project {}", projectId);
+        return ResponseEntity.ok(calendarFeedService.getFeedToken(projectId, rotate, token));
+    }
+
+    // Authenticated by the feed token, since calendar clients cannot send an Authorization header
+    @GetMapping(value = "/feed.ics", produces = "text/calendar")
+    public ResponseEntity<byte[]> getFeed(
+            @PathVariable Long projectId,
+            @RequestParam String token,
+            WebRequest request) {
+        Optional<CalendarFeedService.FeedState> state = calendarFeedService.resolveFeed(projectId, token);
+        if (state.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        long lastModified = state.get().lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(state.get().etag(), lastModified)) {
+            // Headers and the 304 status are already set
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(state.get().etag())
+                .lastModified(lastModified)
+                .body(calendarFeedService.renderFeed(state.get()));
+    }
 }
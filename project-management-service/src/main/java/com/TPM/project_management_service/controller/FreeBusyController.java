@@ -0,0 +1,32 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.FreeBusyResponse;
+import com.TPM.project_management_service.service.FreeBusyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/projects/{projectId}/calendar/free-busy")
+@RequiredArgsConstructor
+@Slf4j
+public class FreeBusyController {
+    private final FreeBusyService freeBusyService;
+
+    @GetMapping
+    public ResponseEntity<FreeBusyResponse> getFreeBusy(
+            @PathVariable Long projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "30") int durationMinutes,
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "15") int granularityMinutes,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting free/busy for project {}", projectId);
+        return ResponseEntity.ok(freeBusyService.getFreeBusy(projectId, start, end, durationMinutes, count, granularityMinutes, token));
+    }
+}
@@ -1,7 +1,12 @@
 package com.TPM.project_management_service.controller;
 
+import com.TPM.project_management_service.dto.ProjectArchiveResponse;
+import com.TPM.project_management_service.dto.ProjectDashboardResponse;
+import com.TPM.project_management_service.dto.ProjectDeletionResponse;
 import com.TPM.project_management_service.dto.ProjectRequest;
 import com.TPM.project_management_service.dto.ProjectResponse;
+import com.TPM.project_management_service.service.ProjectArchiveService;
+import com.TPM.project_management_service.service.ProjectDashboardService;
 import com.TPM.project_management_service.service.ProjectService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +23,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProjectController {
     private final ProjectService projectService;
+    private final ProjectArchiveService projectArchiveService;
+    private final ProjectDashboardService projectDashboardService;
 
     @PostMapping
     public ResponseEntity<ProjectResponse> createProject(
@@ -56,11 +63,43 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(
+    public ResponseEntity<ProjectDeletionResponse> deleteProject(
             @PathVariable Long id,
             @RequestHeader("Authorization") String token) {
         log.info("Deleting project with id: {}", id);
-        projectService.deleteProject(id, token);
-        return ResponseEntity.noContent().build();
+        ProjectDeletionResponse deletion = projectService.deleteProject(id, token);
+        return ResponseEntity.accepted().body(deletion);
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<ProjectArchiveResponse> archiveProject(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        log.info("Archiving project with id: {}", id);
+        return ResponseEntity.accepted().body(projectArchiveService.archiveProject(id, token));
+    }
+
+    @GetMapping("/{id}/archive")
+    public ResponseEntity<ProjectArchiveResponse> getArchivedProject(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting archived project with id: {}", id);
+        return ResponseEntity.ok(projectArchiveService.getArchivedProject(id, token));
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<ProjectDeletionResponse> getDeletionStatus(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting deletion status for project with id: {}", id);
+        return ResponseEntity.ok(projectService.getDeletionStatus(id, token));
+    }
+
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<ProjectDashboardResponse> getProjectDashboard(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting dashboard for project with id: {}", id);
+        return ResponseEntity.ok(projectDashboardService.getDashboard(id, token));
+    }
+}
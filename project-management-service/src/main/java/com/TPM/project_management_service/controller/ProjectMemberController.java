@@ -1,5 +1,7 @@
 package com.TPM.project_management_service.controller;
 
+import com.TPM.project_management_service.dto.PageResponse;
+import com.TPM.project_management_service.dto.ProjectMemberDetailsResponse;
 import com.TPM.project_management_service.dto.ProjectMemberRequest;
 import com.TPM.project_management_service.dto.ProjectMemberResponse;
 import com.TPM.project_management_service.model.ProjectRole;
@@ -37,6 +39,16 @@ public class ProjectMemberController {
         return ResponseEntity.ok(projectMemberService.getProjectMembers(projectId, token));
     }
 
+    @GetMapping("/details")
+    public ResponseEntity<PageResponse<ProjectMemberDetailsResponse>> getProjectMemberDetails(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting member details page {} for project {}", page, projectId);
+        return ResponseEntity.ok(projectMemberService.getProjectMemberDetails(projectId, page, size, token));
+    }
+
     @PostMapping("/accept-invitation")
     public ResponseEntity<ProjectMemberResponse> acceptInvitation(
             @PathVariable Long projectId,
@@ -10,11 +10,15 @@ import com.TPM.project_management_service.exception.UnauthorizedAccessException;
 import com.TPM.project_management_service.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.HandlerMethod;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/projects/{projectId}/tasks")
@@ -24,154 +28,93 @@ public class TaskController {
     private final TaskService taskService;
 
     @PostMapping
-    public ResponseEntity<Object> createTask(
+    public ResponseEntity<TaskResponse> createTask(
             @PathVariable Long projectId,
             @RequestBody TaskRequest request,
             @RequestHeader("Authorization") String token) {
         log.info("Creating task in project {}", projectId);
-        try {
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(taskService.createTask(projectId, request, token));
-        } catch (ProjectNotFoundException e) {
-            log.error("Project not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error creating task: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error creating task: " + e.getMessage()));
-        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskService.createTask(projectId, request, token));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllTasks(
+    public ResponseEntity<List<TaskResponse>> getAllTasks(
             @PathVariable Long projectId,
             @RequestHeader("Authorization") String token) {
         log.info("Getting all tasks for project {}", projectId);
-        try {
-            return ResponseEntity.ok(taskService.getAllTasksForProject(projectId, token));
-        } catch (ProjectNotFoundException e) {
-            log.error("Project not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error getting tasks: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error getting tasks: " + e.getMessage()));
-        }
+        return ResponseEntity.ok(taskService.getAllTasksForProject(projectId, token));
     }
 
     @GetMapping("/{taskId}")
-    public ResponseEntity<Object> getTaskById(
+    public ResponseEntity<TaskResponse> getTaskById(
             @PathVariable Long projectId,
             @PathVariable Long taskId,
             @RequestHeader("Authorization") String token) {
         log.info("Getting task {} for project {}", taskId, projectId);
-        try {
-            return ResponseEntity.ok(taskService.getTaskById(projectId, taskId, token));
-        } catch (ProjectNotFoundException | TaskNotFoundException e) {
-            log.error("Not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error getting task: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error getting task: " + e.getMessage()));
-        }
+        return ResponseEntity.ok(taskService.getTaskById(projectId, taskId, token));
     }
 
     @PutMapping("/{taskId}")
-    public ResponseEntity<Object> updateTask(
+    public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long projectId,
             @PathVariable Long taskId,
             @RequestBody TaskRequest request,
             @RequestHeader("Authorization") String token) {
         log.info("Updating task {} for project {}", taskId, projectId);
-        try {
-            return ResponseEntity.ok(taskService.updateTask(projectId, taskId, request, token));
-        } catch (ProjectNotFoundException | TaskNotFoundException e) {
-            log.error("Not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error updating task: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error updating task: " + e.getMessage()));
-        }
+        return ResponseEntity.ok(taskService.updateTask(projectId, taskId, request, token));
     }
 
     @DeleteMapping("/{taskId}")
-    public ResponseEntity<Object> deleteTask(
+    public ResponseEntity<Void> deleteTask(
             @PathVariable Long projectId,
             @PathVariable Long taskId,
             @RequestHeader("Authorization") String token) {
         log.info("Deleting task {} for project {}", taskId, projectId);
-        try {
-            taskService.deleteTask(projectId, taskId, token);
-            return ResponseEntity.noContent().build();
-        } catch (ProjectNotFoundException | TaskNotFoundException e) {
-            log.error("Not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error deleting task: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error deleting task: " + e.getMessage()));
-        }
+        taskService.deleteTask(projectId, taskId, token);
+        return ResponseEntity.noContent().build();
     }
 
+    // Answered asynchronously: the model call runs on aiPlanExecutor, not on the request thread
     @GetMapping("/{taskId}/ai-plan")
-    public ResponseEntity<Object> generateAiTaskPlan(
+    public CompletableFuture<ResponseEntity<AiTaskPlanResponse>> generateAiTaskPlan(
             @PathVariable Long projectId,
             @PathVariable Long taskId,
+            @RequestParam(defaultValue = "false") boolean regenerate,
             @RequestHeader("Authorization") String token) {
         log.info("Generating AI plan for task {} in project {}", taskId, projectId);
-        try {
-            return ResponseEntity.ok(taskService.generateAiTaskPlan(projectId, taskId, token));
-        } catch (ProjectNotFoundException | TaskNotFoundException e) {
-            log.error("Not found: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
-        } catch (UnauthorizedAccessException e) {
-            log.error("Unauthorized access: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
-        } catch (Exception e) {
-            log.error("Error generating AI task plan: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error generating AI task plan: " + e.getMessage()));
+        return taskService.generateAiTaskPlan(projectId, taskId, regenerate, token).thenApply(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler({ProjectNotFoundException.class, TaskNotFoundException.class})
+    public ResponseEntity<ErrorResponse> handleNotFound(RuntimeException e) {
+        log.error("Not found: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(UnauthorizedAccessException.class)
+    public ResponseEntity<ErrorResponse> handleUnauthorized(UnauthorizedAccessException e) {
+        log.error("Unauthorized access: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(IllegalArgumentException e) {
+        log.error("Invalid request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleFailure(Exception e, HandlerMethod handler) throws Exception {
+        // Request binding and parsing errors (missing header, bad JSON, non-numeric ids) keep Spring's 400
+        if (e instanceof org.springframework.web.ErrorResponse || e instanceof TypeMismatchException
+                || e instanceof HttpMessageNotReadableException) {
+            throw e;
         }
+        log.error("Error processing task request in {}: {}", handler.getMethod().getName(), e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Error processing task request: " + e.getMessage()));
     }
 }
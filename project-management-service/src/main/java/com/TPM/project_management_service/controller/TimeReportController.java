@@ -0,0 +1,49 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.TimeReportResponse;
+import com.TPM.project_management_service.service.TimeReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/projects/{projectId}/time-reports")
+@RequiredArgsConstructor
+@Slf4j
+public class TimeReportController {
+    private final TimeReportService timeReportService;
+
+    @GetMapping("/by-user")
+    public ResponseEntity<TimeReportResponse> getTotalsByUser(
+            @PathVariable Long projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting time totals by user for project {}", projectId);
+        return ResponseEntity.ok(timeReportService.getReport(projectId, TimeReportService.GroupBy.USER, from, to, token));
+    }
+
+    @GetMapping("/by-task")
+    public ResponseEntity<TimeReportResponse> getTotalsByTask(
+            @PathVariable Long projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting time totals by task for project {}", projectId);
+        return ResponseEntity.ok(timeReportService.getReport(projectId, TimeReportService.GroupBy.TASK, from, to, token));
+    }
+
+    @GetMapping("/by-week")
+    public ResponseEntity<TimeReportResponse> getTotalsByWeek(
+            @PathVariable Long projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader("Authorization") String token) {
+        log.info("Getting time totals by week for project {}", projectId);
+        return ResponseEntity.ok(timeReportService.getReport(projectId, TimeReportService.GroupBy.WEEK, from, to, token));
+    }
+}
@@ -0,0 +1,25 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.TimeTrackingBatchRequest;
+import com.TPM.project_management_service.dto.TimeTrackingBatchResponse;
+import com.TPM.project_management_service.service.TimeTrackingIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/time-tracking/batch")
+@RequiredArgsConstructor
+@Slf4j
+public class TimeTrackingBatchController {
+    private final TimeTrackingIngestService timeTrackingIngestService;
+
+    @PostMapping
+    public ResponseEntity<TimeTrackingBatchResponse> ingestTimeEntries(
+            @RequestBody TimeTrackingBatchRequest request,
+            @RequestHeader("Authorization") String token) {
+        log.info("Ingesting batch of time entries");
+        return ResponseEntity.ok(timeTrackingIngestService.ingest(request, token));
+    }
+}
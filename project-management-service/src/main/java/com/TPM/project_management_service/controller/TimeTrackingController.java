@@ -1,14 +1,19 @@
 package com.TPM.project_management_service.controller;
 
+import com.TPM.project_management_service.dto.CursorPageResponse;
+import com.TPM.project_management_service.dto.ErrorResponse;
 import com.TPM.project_management_service.dto.TimeTrackingRequest;
 import com.TPM.project_management_service.dto.TimeTrackingResponse;
+import com.TPM.project_management_service.exception.TimerAlreadyRunningException;
 import com.TPM.project_management_service.service.TimeTrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -50,11 +55,15 @@ public class TimeTrackingController {
     }
 
     @GetMapping("/time-tracking/my")
-    public ResponseEntity<List<TimeTrackingResponse>> getMyTimeTrackings(
+    public ResponseEntity<CursorPageResponse<TimeTrackingResponse>> getMyTimeTrackings(
             @PathVariable Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
             @RequestHeader("Authorization") String token) {
         log.info("Getting my time trackings for project {}", projectId);
-        return ResponseEntity.ok(timeTrackingService.getTimeTrackingsForUser(projectId, token));
+        return ResponseEntity.ok(timeTrackingService.getTimeTrackingsForUser(projectId, from, to, cursor, size, token));
     }
 
     @DeleteMapping("/tasks/{taskId}/time-tracking/{timeTrackingId}")
@@ -67,4 +76,11 @@ public class TimeTrackingController {
         timeTrackingService.deleteTimeTracking(projectId, taskId, timeTrackingId, token);
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(TimerAlreadyRunningException.class)
+    public ResponseEntity<ErrorResponse> handleTimerConflict(TimerAlreadyRunningException e) {
+        log.warn("Timer conflict: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(HttpStatus.CONFLICT.value(), e.getMessage()));
+    }
 }
@@ -0,0 +1,85 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.ErrorResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.service.TimesheetExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/time-tracking/export")
+@RequiredArgsConstructor
+@Slf4j
+public class TimesheetExportController {
+    private final TimesheetExportService timesheetExportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportTimesheet(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader("Authorization") String token) {
+        log.info("Exporting timesheet from {} to {}", from, to);
+        TimesheetExportService.Format exportFormat = parseFormat(format);
+        StreamingResponseBody body = timesheetExportService.exportTimesheet(exportFormat, from, to, projectId, userId, gzip, token);
+
+        String filename = "timesheet-" + from + "-" + to + (exportFormat == TimesheetExportService.Format.CSV ? ".csv" : ".ndjson");
+        MediaType contentType = exportFormat == TimesheetExportService.Format.CSV
+                ? new MediaType("text", "csv")
+                : new MediaType("application", "x-ndjson");
+        if (gzip) {
+            filename += ".gz";
+            contentType = new MediaType("application", "gzip");
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(IllegalArgumentException e) {
+        log.error("Invalid export request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(ProjectNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(ProjectNotFoundException e) {
+        log.error("Project not found: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()));
+    }
+
+    @ExceptionHandler(UnauthorizedAccessException.class)
+    public ResponseEntity<ErrorResponse> handleUnauthorized(UnauthorizedAccessException e) {
+        log.error("Unauthorized access: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage()));
+    }
+
+    private static TimesheetExportService.Format parseFormat(String format) {
+        try {
+            return TimesheetExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format '" + format + "'; expected one of "
+                    + Arrays.toString(TimesheetExportService.Format.values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.dto.UserChangeEvent;
+import com.TPM.project_management_service.service.UserDirectoryService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Receives user change events relayed from the User-Auth outbox.
+ */
+@RestController
+@RequestMapping("/internal/user-changes")
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeEventController {
+    private final UserDirectoryService userDirectoryService;
+
+    @Value("${application.config.user-events-key}")
+    private String eventsKey;
+
+    @PostConstruct
+    void checkKey() {
+        if (eventsKey.isBlank()) {
+            throw new IllegalStateException("application.config.user-events-key must not be blank");
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> receiveUserChanges(
+            @RequestBody List<UserChangeEvent> events,
+            @RequestHeader(value = "X-Events-Key", required = false) String key) {
+        if (key == null || !MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8), eventsKey.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected user change batch with missing or invalid key");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        log.info("Received {} user change events", events.size());
+        userDirectoryService.applyChanges(events);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveTimerResponse {
+    private Long timeTrackingId;
+    private Long projectId;
+    private Long taskId;
+    private Integer userId;
+    private LocalDateTime startTime;
+    private String description;
+}
@@ -0,0 +1,21 @@
+package com.TPM.project_management_service.dto;
+
+import com.TPM.project_management_service.model.AiPlanJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AiPlanJobResponse {
+    private Long jobId;
+    private Long projectId;
+    private Long taskId;
+    private AiPlanJobStatus status;
+    // Set once the job has completed
+    private String plan;
+    private boolean cached;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
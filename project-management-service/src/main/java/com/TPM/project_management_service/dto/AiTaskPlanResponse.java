@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,7 @@ public class AiTaskPlanResponse {
     private Long taskId;
     private String taskTitle;
     private String plan;
+    // True when the plan was stored earlier for the same task content
+    private boolean cached;
+    private LocalDateTime generatedAt;
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkAiPlanRequest {
+    // Tasks to plan; when empty, every task of the project that is not done
+    private List<Long> taskIds;
+    // Optional deadline window, e.g. a sprint, applied when taskIds is empty
+    private LocalDateTime deadlineFrom;
+    private LocalDateTime deadlineTo;
+    private boolean regenerate;
+}
@@ -0,0 +1,19 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkAiPlanResponse {
+    private Long projectId;
+    // Tasks answered from stored plans without a model call
+    private int cachedCount;
+    private int queuedCount;
+    // Tasks that already had a pending or running job; that job is returned instead of a new one
+    private int inFlightCount;
+    // Model calls the queued tasks were packed into
+    private int batchCount;
+    private List<AiPlanJobResponse> jobs = new ArrayList<>();
+}
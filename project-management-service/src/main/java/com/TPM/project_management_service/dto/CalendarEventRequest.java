@@ -4,6 +4,7 @@ import com.TPM.project_management_service.model.CalendarEventType;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class CalendarEventRequest {
@@ -15,4 +16,8 @@ public class CalendarEventRequest {
     private Boolean allDay;
     private String location;
     private Long taskId;
+    // RRULE subset (FREQ, INTERVAL, COUNT, UNTIL, weekly BYDAY); an empty string turns a series back into a single event
+    private String recurrenceRule;
+    // Start times of occurrences to skip
+    private List<LocalDateTime> recurrenceExceptions;
 }
@@ -4,6 +4,7 @@ import com.TPM.project_management_service.model.CalendarEventType;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class CalendarEventResponse {
@@ -20,4 +21,8 @@ public class CalendarEventResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Long taskId;
+    private String recurrenceRule;
+    private List<LocalDateTime> recurrenceExceptions;
+    // For an expanded occurrence, the start of the series it belongs to
+    private LocalDateTime seriesStartTime;
 }
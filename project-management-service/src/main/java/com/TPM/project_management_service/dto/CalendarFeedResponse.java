@@ -0,0 +1,15 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedResponse {
+    private Long projectId;
+    private String token;
+    // Relative to the service's base URL, ready to paste into a calendar client
+    private String feedPath;
+}
@@ -0,0 +1,37 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FreeBusyResponse {
+    private Long projectId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer durationMinutes;
+    private List<MemberBusy> members = new ArrayList<>();
+    // Union of every member's busy time
+    private List<Interval> busy = new ArrayList<>();
+    private List<Interval> freeSlots = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MemberBusy {
+        private Integer userId;
+        private List<Interval> busy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Interval {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
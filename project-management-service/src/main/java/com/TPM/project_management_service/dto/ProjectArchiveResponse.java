@@ -0,0 +1,20 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProjectArchiveResponse {
+    private Long projectId;
+    private String name;
+    private Integer ownerId;
+    private Integer archivedBy;
+    private LocalDateTime archivedAt;
+    private Integer taskCount;
+    private Integer timeTrackingCount;
+    private Integer eventCount;
+    private Integer compressedSize;
+    private Integer uncompressedSize;
+    private ProjectArchiveSnapshot snapshot;
+}
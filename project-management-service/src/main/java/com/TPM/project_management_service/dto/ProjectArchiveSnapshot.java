@@ -0,0 +1,20 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content of an archived project as stored (compressed) in project_archives.
+ */
+@Data
+public class ProjectArchiveSnapshot {
+    private ProjectResponse project;
+    private String calendarName;
+    private String calendarDescription;
+    private List<TaskResponse> tasks = new ArrayList<>();
+    private List<ProjectMemberResponse> members = new ArrayList<>();
+    private List<TimeTrackingResponse> timeTrackings = new ArrayList<>();
+    private List<CalendarEventResponse> calendarEvents = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.TPM.project_management_service.dto;
+
+import com.TPM.project_management_service.model.TaskStatus;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ProjectDashboardResponse {
+    private ProjectResponse project;
+    private List<ProjectMemberResponse> members;
+    private Map<TaskStatus, Long> taskCounts;
+    private List<CalendarEventResponse> upcomingEvents;
+    private List<TimeTrackingResponse> runningTimers;
+}
@@ -0,0 +1,19 @@
+package com.TPM.project_management_service.dto;
+
+import com.TPM.project_management_service.model.ProjectDeletionStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProjectDeletionResponse {
+    private Long jobId;
+    private Long projectId;
+    private ProjectDeletionStatus status;
+    private String currentStep;
+    private Long deletedRows;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
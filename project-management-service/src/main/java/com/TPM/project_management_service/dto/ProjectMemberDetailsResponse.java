@@ -0,0 +1,20 @@
+package com.TPM.project_management_service.dto;
+
+import com.TPM.project_management_service.model.ProjectRole;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProjectMemberDetailsResponse {
+    private Long id;
+    private Long projectId;
+    private Integer userId;
+    private ProjectRole role;
+    private LocalDateTime joinedAt;
+    private Integer invitedBy;
+    private Boolean invitationAccepted;
+    private String displayName;
+    private String position;
+    private String profileImageUrl;
+}
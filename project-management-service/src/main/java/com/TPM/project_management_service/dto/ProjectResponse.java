@@ -1,5 +1,6 @@
 package com.TPM.project_management_service.dto;
 
+import com.TPM.project_management_service.model.ProjectStatus;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -15,4 +16,5 @@ public class ProjectResponse {
     private LocalDateTime updatedAt;
     private Set<Integer> memberIds;
     private Set<Integer> adminIds;
+    private ProjectStatus status;
 }
\ No newline at end of file
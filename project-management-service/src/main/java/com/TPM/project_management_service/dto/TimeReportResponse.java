@@ -0,0 +1,16 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class TimeReportResponse {
+    private Long projectId;
+    private String groupBy;
+    private LocalDate from;
+    private LocalDate to;
+    private Long totalSeconds;
+    private List<TimeReportRow> rows;
+}
@@ -0,0 +1,20 @@
+package com.TPM.project_management_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * One group of a time report; only the field the report is grouped by is set.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TimeReportRow {
+    private Integer userId;
+    private Long taskId;
+    private LocalDate weekStart;
+    private Long totalSeconds;
+    private Long totalMinutes;
+    private Long entryCount;
+}
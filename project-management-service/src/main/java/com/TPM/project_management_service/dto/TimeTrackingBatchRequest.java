@@ -0,0 +1,21 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class TimeTrackingBatchRequest {
+    private List<Entry> entries;
+
+    @Data
+    public static class Entry {
+        // Client-generated idempotency key, unique per user
+        private String clientEntryId;
+        private Long taskId;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private String description;
+    }
+}
@@ -0,0 +1,24 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TimeTrackingBatchResponse {
+    private int received;
+    private int accepted;
+    private int duplicates;
+    private List<RejectedEntry> rejected = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedEntry {
+        private String clientEntryId;
+        private String reason;
+    }
+}
@@ -12,6 +12,7 @@ public class TimeTrackingResponse {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private Integer durationMinutes;
+    private Long durationSeconds;
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,18 @@
+package com.TPM.project_management_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class UserChangeEvent {
+    private Long eventId;
+    private String type;
+    private Integer userId;
+    private String firstname;
+    private String lastname;
+    private String position;
+    private String profileImageUrl;
+    private boolean enabled;
+    private LocalDateTime occurredAt;
+}
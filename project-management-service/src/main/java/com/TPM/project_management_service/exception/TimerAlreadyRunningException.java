@@ -0,0 +1,7 @@
+package com.TPM.project_management_service.exception;
+
+public class TimerAlreadyRunningException extends RuntimeException {
+    public TimerAlreadyRunningException(String message) {
+        super(message);
+    }
+}
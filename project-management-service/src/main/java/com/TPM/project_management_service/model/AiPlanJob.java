@@ -0,0 +1,65 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued or finished AI plan generation for one task. Finished jobs are removed after a day.
+ */
+@Entity
+@Table(name = "ai_plan_jobs", indexes = @Index(name = "idx_ai_plan_jobs_status", columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiPlanJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "requested_by", nullable = false)
+    private Integer requestedBy;
+
+    @Column(nullable = false)
+    private boolean regenerate;
+
+    // Queued by a bulk request; runs on the bulk executor and rate limiter
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean bulk;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AiPlanJobStatus status = AiPlanJobStatus.PENDING;
+
+    @Column(columnDefinition = "TEXT")
+    private String plan;
+
+    @Column(nullable = false)
+    private boolean cached;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
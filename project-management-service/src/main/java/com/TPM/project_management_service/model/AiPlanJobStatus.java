@@ -0,0 +1,11 @@
+package com.TPM.project_management_service.model;
+
+/**
+ * Enum representing the state of a background AI plan generation
+ */
+public enum AiPlanJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,35 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last AI plan generated for a task, with a hash of the task content it was generated from.
+ * Plans of deleted tasks are swept together with expired ones.
+ */
+@Entity
+@Table(name = "ai_task_plans")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiTaskPlan {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String plan;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
@@ -52,6 +52,19 @@ public class CalendarEvent {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // RRULE of a recurring series; the event's own start and end times are the first occurrence
+    @Column(name = "recurrence_rule", length = 500)
+    private String recurrenceRule;
+
+    // End of the series' last occurrence (its start when events have no end), null while it never ends;
+    // lets queries skip finished series
+    @Column(name = "recurrence_until")
+    private LocalDateTime recurrenceUntil;
+
+    // Comma-separated ISO start times of cancelled occurrences
+    @Column(name = "recurrence_exceptions", columnDefinition = "TEXT")
+    private String recurrenceExceptions;
+
     // Optional reference to a task if this event is related to a task deadline
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id")
@@ -0,0 +1,46 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local read-only replica of the public user data owned by User-Auth, kept up to date from
+ * user change events. Lets this service identify callers, resolve names and check user
+ * existence without a synchronous call to User-Auth.
+ */
+@Entity
+@Table(name = "directory_users")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectoryUser {
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(name = "firstname")
+    private String firstname;
+
+    @Column(name = "lastname")
+    private String lastname;
+
+    @Column(name = "position")
+    private String position;
+
+    @Column(name = "profile_image_url")
+    private String profileImageUrl;
+
+    @Column(name = "enabled", nullable = false)
+    private Boolean enabled = false;
+
+    // Id of the last applied change event; older or re-delivered events are ignored
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,6 +17,8 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// Projects being purged or archived in the background are invisible to every query
+@SQLRestriction("status = 'ACTIVE'")
 public class Project {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +39,15 @@ public class Project {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "varchar(20) default 'ACTIVE'")
+    private ProjectStatus status = ProjectStatus.ACTIVE;
+
+    // Whether the daily time tracking rollups cover the entries written before they existed. Rows that predate
+    // the column get false and are rebuilt once; new projects start with no entries, so they are covered
+    @Column(name = "rollups_built", nullable = false, columnDefinition = "boolean default false")
+    private boolean rollupsBuilt = true;
+
     // Deprecated: Use ProjectMember entity instead
     @ElementCollection
     @CollectionTable(name = "project_members", joinColumns = @JoinColumn(name = "project_id"))
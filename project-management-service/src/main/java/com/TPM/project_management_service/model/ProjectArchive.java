@@ -0,0 +1,55 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold storage for an archived project: the project with its tasks, members, time entries and
+ * calendar events as one gzip-compressed JSON document, so history no longer grows the hot tables.
+ */
+@Entity
+@Table(name = "project_archives", indexes = @Index(name = "idx_project_archives_owner", columnList = "owner_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectArchive {
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+
+    @Column(name = "archived_by", nullable = false)
+    private Integer archivedBy;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount;
+
+    @Column(name = "time_tracking_count", nullable = false)
+    private Integer timeTrackingCount;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(name = "uncompressed_size", nullable = false)
+    private Integer uncompressedSize;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @PrePersist
+    protected void onCreate() {
+        archivedAt = LocalDateTime.now();
+    }
+}
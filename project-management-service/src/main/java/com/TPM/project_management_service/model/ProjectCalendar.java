@@ -29,6 +29,17 @@ public class ProjectCalendar {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Secret of the subscription feed, which calendar clients fetch without an Authorization header
+    @Column(name = "feed_token", length = 64, unique = true)
+    private String feedToken;
+
+    // Bumped whenever one of the calendar's events changes; versions the rendered ICS feed
+    @Column(name = "content_version")
+    private Long contentVersion;
+
+    @Column(name = "content_updated_at")
+    private LocalDateTime contentUpdatedAt;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,55 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tracks the progress of a background project purge; the job outlives the project it deleted.
+ */
+@Entity
+@Table(name = "project_deletion_jobs", indexes = @Index(name = "idx_project_deletion_jobs_project", columnList = "project_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletionJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "requested_by", nullable = false)
+    private Integer requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProjectDeletionStatus status = ProjectDeletionStatus.PENDING;
+
+    @Column(name = "current_step")
+    private String currentStep;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private Long deletedRows = 0L;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.TPM.project_management_service.model;
+
+/**
+ * Enum representing the state of a background project deletion
+ */
+public enum ProjectDeletionStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.TPM.project_management_service.model;
+
+/**
+ * Enum representing the lifecycle state of a project
+ */
+public enum ProjectStatus {
+    ACTIVE,
+    DELETING,
+    // Snapshot stored in project_archives; hot rows are being purged
+    ARCHIVING,
+    // Only used in responses served from the archive
+    ARCHIVED
+}
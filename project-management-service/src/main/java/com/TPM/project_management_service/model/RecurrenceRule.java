@@ -0,0 +1,238 @@
+package com.TPM.project_management_service.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The supported subset of RFC 5545 RRULE: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL,
+ * COUNT, UNTIL and, for weekly rules, BYDAY without ordinals. Weeks start on Monday. Monthly and
+ * yearly rules are stepped from the series start and clamp to the end of shorter months
+ * (a series on the 31st falls on the 30th in April) instead of skipping them.
+ * <p>
+ * Occurrences are computed on demand: enumeration jumps straight to the first period that can
+ * reach the requested window, so the cost depends on the window, not on the series' age.
+ */
+public final class RecurrenceRule {
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    // Bounds keep every computed start within LocalDateTime's range
+    private static final int MAX_COUNT = 5000;
+    private static final int MAX_INTERVAL = 1000;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+    private final List<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDateTime until, List<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+        String body = rule.trim();
+        if (body.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            body = body.substring(6);
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDateTime until = null;
+        Set<DayOfWeek> byDay = new TreeSet<>();
+        for (String part : body.split(";")) {
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String value = keyValue[1].trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (keyValue[0].trim().toUpperCase(Locale.ROOT)) {
+                    case "FREQ" -> frequency = Frequency.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = parseUntil(value);
+                    case "BYDAY" -> {
+                        for (String day : value.split(",")) {
+                            byDay.add(parseDay(day.trim()));
+                        }
+                    }
+                    case "WKST" -> {
+                        if (!"MO".equals(value)) {
+                            throw new IllegalArgumentException("Only WKST=MO is supported");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + keyValue[0]);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule requires FREQ");
+        }
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("INTERVAL must be between 1 and " + MAX_INTERVAL);
+        }
+        if (count != null && (count < 1 || count > MAX_COUNT)) {
+            throw new IllegalArgumentException("COUNT must be between 1 and " + MAX_COUNT);
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot be combined");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported for weekly rules");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, List.copyOf(byDay));
+    }
+
+    /**
+     * Starts of the occurrences of a series beginning at {@code seriesStart} that fall in
+     * [from, to], minus the excluded starts, at most {@code limit} of them.
+     */
+    public List<LocalDateTime> occurrencesBetween(LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to,
+                                                  Set<LocalDateTime> exceptions, int limit) {
+        List<LocalDateTime> result = new ArrayList<>();
+        long period = firstPeriodReaching(seriesStart, from);
+        long index = occurrencesBeforePeriod(seriesStart, period);
+        while (result.size() < limit) {
+            List<LocalDateTime> candidates = occurrencesInPeriod(seriesStart, period);
+            if (candidates.isEmpty()) {
+                // Only the first week of a BYDAY rule can be empty, when all its days precede the start
+                period++;
+                continue;
+            }
+            if (candidates.get(0).isAfter(to)) {
+                break;
+            }
+            for (LocalDateTime occurrence : candidates) {
+                if ((count != null && index >= count) || (until != null && occurrence.isAfter(until)) || occurrence.isAfter(to)) {
+                    return result;
+                }
+                index++;
+                if (!occurrence.isBefore(from) && !exceptions.contains(occurrence) && result.size() < limit) {
+                    result.add(occurrence);
+                }
+            }
+            period++;
+        }
+        return result;
+    }
+
+    /**
+     * Start of the last occurrence, or null when the series never ends.
+     */
+    public LocalDateTime lastOccurrence(LocalDateTime seriesStart) {
+        if (until != null) {
+            List<LocalDateTime> last = null;
+            // Walk back from the period containing UNTIL to the last one with an occurrence before it
+            for (long period = firstPeriodReaching(seriesStart, until) + 1; period >= 0; period--) {
+                last = occurrencesInPeriod(seriesStart, period).stream().filter(o -> !o.isAfter(until)).toList();
+                if (!last.isEmpty()) {
+                    return last.get(last.size() - 1);
+                }
+            }
+            return seriesStart;
+        }
+        if (count != null) {
+            if (byDay.isEmpty()) {
+                return occurrencesInPeriod(seriesStart, count - 1).get(0);
+            }
+            // Only the first week can hold fewer than byDay.size() occurrences
+            List<LocalDateTime> firstWeek = occurrencesInPeriod(seriesStart, 0);
+            if (count <= firstWeek.size()) {
+                return firstWeek.get(count - 1);
+            }
+            int remaining = count - firstWeek.size() - 1;
+            return occurrencesInPeriod(seriesStart, 1 + remaining / byDay.size()).get(remaining % byDay.size());
+        }
+        return null;
+    }
+
+    private long firstPeriodReaching(LocalDateTime seriesStart, LocalDateTime from) {
+        if (!from.isAfter(seriesStart)) {
+            return 0;
+        }
+        long units = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(seriesStart.toLocalDate(), from.toLocalDate());
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekStart(seriesStart.toLocalDate()), weekStart(from.toLocalDate()));
+            case MONTHLY -> ChronoUnit.MONTHS.between(seriesStart.toLocalDate().withDayOfMonth(1), from.toLocalDate().withDayOfMonth(1));
+            case YEARLY -> from.getYear() - seriesStart.getYear();
+        };
+        // One period of slack covers occurrences that start late in the previous period
+        return Math.max(0, units / interval - 1);
+    }
+
+    private long occurrencesBeforePeriod(LocalDateTime seriesStart, long period) {
+        if (period == 0) {
+            return 0;
+        }
+        if (byDay.isEmpty()) {
+            return period;
+        }
+        return occurrencesInPeriod(seriesStart, 0).size() + (period - 1) * byDay.size();
+    }
+
+    private List<LocalDateTime> occurrencesInPeriod(LocalDateTime seriesStart, long period) {
+        long steps = period * interval;
+        return switch (frequency) {
+            case DAILY -> List.of(seriesStart.plusDays(steps));
+            case MONTHLY -> List.of(seriesStart.plusMonths(steps));
+            case YEARLY -> List.of(seriesStart.plusYears(steps));
+            case WEEKLY -> {
+                if (byDay.isEmpty()) {
+                    yield List.of(seriesStart.plusWeeks(steps));
+                }
+                LocalDate week = weekStart(seriesStart.toLocalDate()).plusWeeks(steps);
+                List<LocalDateTime> days = new ArrayList<>(byDay.size());
+                for (DayOfWeek day : byDay) {
+                    LocalDateTime occurrence = week.with(TemporalAdjusters.nextOrSame(day)).atTime(seriesStart.toLocalTime());
+                    if (!occurrence.isBefore(seriesStart)) {
+                        days.add(occurrence);
+                    }
+                }
+                yield days;
+            }
+        };
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        // A trailing Z is accepted; times are interpreted in the same local time as the events
+        String local = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        return local.contains("T")
+                ? LocalDateTime.parse(local, UNTIL_DATE_TIME)
+                : LocalDate.parse(local, UNTIL_DATE).atTime(23, 59, 59);
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        for (DayOfWeek dayOfWeek : EnumSet.allOf(DayOfWeek.class)) {
+            if (dayOfWeek.name().startsWith(day) && day.length() == 2) {
+                return dayOfWeek;
+            }
+        }
+        throw new IllegalArgumentException("Invalid BYDAY value: " + day);
+    }
+}
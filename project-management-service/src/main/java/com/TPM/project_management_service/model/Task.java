@@ -10,7 +10,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_project", columnList = "project_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+// Partitioned by start_time month; the key, indexes and partitions are managed by TimeTrackingPartitionService
 @Table(name = "time_tracking")
 @Data
 @NoArgsConstructor
@@ -18,7 +19,7 @@ public class TimeTracking {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "task_id", nullable = false)
+    @JoinColumn(name = "task_id", nullable = false, foreignKey = @ForeignKey(name = "fk_time_tracking_task"))
     private Task task;
 
     @Column(name = "user_id", nullable = false)
@@ -33,6 +34,10 @@ public class TimeTracking {
     @Column(name = "duration_minutes")
     private Integer durationMinutes;
 
+    // Exact duration, so aggregates can SUM a column instead of computing intervals per row
+    @Column(name = "duration_seconds")
+    private Long durationSeconds;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -45,15 +50,30 @@ public class TimeTracking {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        computeDuration();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        
-        // Calculate duration if both start and end times are set
+        computeDuration();
+    }
+
+    /**
+     * Derives both duration columns from the timestamps; a running entry has no duration.
+     * Keep in line with TimeTrackingRepository.backfillDurationRange.
+     */
+    private void computeDuration() {
         if (startTime != null && endTime != null) {
-            durationMinutes = (int) java.time.Duration.between(startTime, endTime).toMinutes();
+            durationSeconds = secondsBetween(startTime, endTime);
+            durationMinutes = (int) (durationSeconds / 60);
+        } else {
+            durationSeconds = null;
+            durationMinutes = null;
         }
     }
+
+    public static long secondsBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        return java.time.Duration.between(startTime, endTime).getSeconds();
+    }
 }
@@ -0,0 +1,43 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Tracked time per (project, task, user, day), kept in step with stopped time entries. Entries
+ * spanning midnight contribute to every day they touch.
+ */
+@Entity
+@Table(name = "time_tracking_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_time_tracking_daily_rollups_key",
+                columnNames = {"project_id", "day", "user_id", "task_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeTrackingDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "total_seconds", nullable = false)
+    private Long totalSeconds = 0L;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount = 0;
+}
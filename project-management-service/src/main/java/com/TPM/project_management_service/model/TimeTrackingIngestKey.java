@@ -0,0 +1,35 @@
+package com.TPM.project_management_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of a time entry uploaded through the bulk ingest API. A replayed upload
+ * finds its keys here and skips entries that were already stored. Keys are kept for
+ * {@code application.time-tracking.ingest-key-retention}.
+ */
+@Entity
+@Table(name = "time_tracking_ingest_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_time_tracking_ingest_keys_user_key", columnNames = {"user_id", "client_key"}),
+        indexes = @Index(name = "idx_time_tracking_ingest_keys_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeTrackingIngestKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "client_key", nullable = false, length = 100)
+    private String clientKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
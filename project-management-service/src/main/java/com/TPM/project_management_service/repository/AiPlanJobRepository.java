@@ -0,0 +1,24 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.AiPlanJob;
+import com.TPM.project_management_service.model.AiPlanJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AiPlanJobRepository extends JpaRepository<AiPlanJob, Long> {
+    List<AiPlanJob> findByStatusIn(Collection<AiPlanJobStatus> statuses);
+
+    List<AiPlanJob> findByTaskIdInAndStatusIn(Collection<Long> taskIds, Collection<AiPlanJobStatus> statuses);
+
+    @Modifying
+    @Query(value = "DELETE FROM ai_plan_jobs WHERE finished_at < :cutoff", nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,30 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.AiTaskPlan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AiTaskPlanRepository extends JpaRepository<AiTaskPlan, Long> {
+    // Concurrent generations for the same task end with one row, the last one written
+    @Modifying
+    @Query(value = "INSERT INTO ai_task_plans (task_id, content_hash, model, plan, generated_at) " +
+                   "VALUES (:taskId, :contentHash, :model, :plan, :generatedAt) ON CONFLICT (task_id) DO UPDATE " +
+                   "SET content_hash = EXCLUDED.content_hash, model = EXCLUDED.model, plan = EXCLUDED.plan, " +
+                   "generated_at = EXCLUDED.generated_at", nativeQuery = true)
+    int upsert(@Param("taskId") Long taskId,
+               @Param("contentHash") String contentHash,
+               @Param("model") String model,
+               @Param("plan") String plan,
+               @Param("generatedAt") LocalDateTime generatedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM ai_task_plans p WHERE p.generated_at < :cutoff " +
+                   "OR NOT EXISTS (SELECT 1 FROM tasks t WHERE t.id = p.task_id)", nativeQuery = true)
+    int deleteExpiredOrOrphaned(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,9 +3,13 @@ package com.TPM.project_management_service.repository;
 import com.TPM.project_management_service.model.CalendarEvent;
 import com.TPM.project_management_service.model.CalendarEventType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +18,72 @@ public interface CalendarEventRepository extends JpaRepository<CalendarEvent, Lo
     List<CalendarEvent> findByCalendarIdAndEventType(Long calendarId, CalendarEventType eventType);
     List<CalendarEvent> findByCalendarIdAndStartTimeBetween(Long calendarId, LocalDateTime start, LocalDateTime end);
     List<CalendarEvent> findByTaskId(Long taskId);
+    List<CalendarEvent> findTop20ByCalendarProjectIdAndRecurrenceRuleIsNullAndStartTimeGreaterThanEqualOrderByStartTimeAsc(Long projectId, LocalDateTime from);
+
+    String VIEW_COLUMNS = "e.id AS \"id\", e.calendar_id AS \"calendarId\", e.title AS \"title\", " +
+            "e.description AS \"description\", e.event_type AS \"eventType\", e.start_time AS \"startTime\", " +
+            "e.end_time AS \"endTime\", e.all_day AS \"allDay\", e.location AS \"location\", " +
+            "e.created_by AS \"createdBy\", e.created_at AS \"createdAt\", e.updated_at AS \"updatedAt\", " +
+            "e.task_id AS \"taskId\", e.recurrence_rule AS \"recurrenceRule\", " +
+            "e.recurrence_exceptions AS \"recurrenceExceptions\" ";
+
+    // Single events overlapping [start, end). The tsrange expression matches idx_calendar_events_period,
+    // an event without an end time is treated as an instant
+    @Query(value = "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "WHERE e.calendar_id = :calendarId AND e.recurrence_rule IS NULL " +
+                   "AND tsrange(e.start_time, GREATEST(COALESCE(e.end_time, e.start_time), e.start_time), '[]') " +
+                   "&& tsrange(CAST(:start AS timestamp), CAST(:end AS timestamp), '[)') " +
+                   "AND (e.end_time IS NULL OR e.end_time > :start) " +
+                   "ORDER BY e.start_time", nativeQuery = true)
+    List<CalendarEventView> findOverlapping(@Param("calendarId") Long calendarId,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end);
+
+    // Recurring series that may have an occurrence overlapping [start, end); expanded by the caller
+    @Query(value = "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "WHERE e.calendar_id = :calendarId AND e.recurrence_rule IS NOT NULL " +
+                   "AND e.start_time < :end AND (e.recurrence_until IS NULL OR e.recurrence_until >= :start)", nativeQuery = true)
+    List<CalendarEventView> findSeriesOverlapping(@Param("calendarId") Long calendarId,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "JOIN project_calendars c ON c.id = e.calendar_id " +
+                   "WHERE c.project_id = :projectId AND e.recurrence_rule IS NOT NULL " +
+                   "AND e.start_time < :end AND (e.recurrence_until IS NULL OR e.recurrence_until >= :start)", nativeQuery = true)
+    List<CalendarEventView> findSeriesOverlappingForProject(@Param("projectId") Long projectId,
+                                                            @Param("start") LocalDateTime start,
+                                                            @Param("end") LocalDateTime end);
+
+    // Timed meetings and other events that make people unavailable: those on the given calendar plus
+    // those the given users created on any calendar. Each branch of the union has its own index
+    @Query(value = "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "WHERE e.calendar_id = :calendarId AND e.recurrence_rule IS NULL " +
+                   "AND e.event_type IN ('MEETING', 'OTHER') AND e.all_day = false AND e.end_time > :start " +
+                   "AND tsrange(e.start_time, GREATEST(COALESCE(e.end_time, e.start_time), e.start_time), '[]') " +
+                   "&& tsrange(CAST(:start AS timestamp), CAST(:end AS timestamp), '[)') " +
+                   "UNION " +
+                   "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "WHERE e.created_by IN (:userIds) AND e.recurrence_rule IS NULL " +
+                   "AND e.event_type IN ('MEETING', 'OTHER') AND e.all_day = false " +
+                   "AND e.start_time < :end AND e.end_time > :start", nativeQuery = true)
+    List<CalendarEventView> findBlockingOverlapping(@Param("calendarId") Long calendarId,
+                                                    @Param("userIds") Collection<Integer> userIds,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT " + VIEW_COLUMNS + "FROM calendar_events e " +
+                   "WHERE (e.calendar_id = :calendarId OR e.created_by IN (:userIds)) AND e.recurrence_rule IS NOT NULL " +
+                   "AND e.event_type IN ('MEETING', 'OTHER') AND e.all_day = false AND e.end_time IS NOT NULL " +
+                   "AND e.start_time < :end AND (e.recurrence_until IS NULL OR e.recurrence_until >= :start)", nativeQuery = true)
+    List<CalendarEventView> findBlockingSeriesOverlapping(@Param("calendarId") Long calendarId,
+                                                          @Param("userIds") Collection<Integer> userIds,
+                                                          @Param("start") LocalDateTime start,
+                                                          @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query(value = "DELETE FROM calendar_events WHERE id IN (" +
+                   "SELECT e.id FROM calendar_events e JOIN project_calendars c ON c.id = e.calendar_id " +
+                   "WHERE c.project_id = :projectId LIMIT :limit)", nativeQuery = true)
+    int deleteBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
 }
@@ -0,0 +1,27 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.CalendarEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of a calendar event. It carries the task and calendar ids as plain columns,
+ * so listing events never loads the lazy associations.
+ */
+public interface CalendarEventView {
+    Long getId();
+    Long getCalendarId();
+    String getTitle();
+    String getDescription();
+    CalendarEventType getEventType();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Boolean getAllDay();
+    String getLocation();
+    Integer getCreatedBy();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getTaskId();
+    String getRecurrenceRule();
+    String getRecurrenceExceptions();
+}
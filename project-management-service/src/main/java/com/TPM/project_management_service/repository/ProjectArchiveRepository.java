@@ -0,0 +1,9 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.ProjectArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectArchiveRepository extends JpaRepository<ProjectArchive, Long> {
+}
@@ -1,12 +1,53 @@
 package com.TPM.project_management_service.repository;
 
+import com.TPM.project_management_service.dto.ProjectCalendarResponse;
 import com.TPM.project_management_service.model.ProjectCalendar;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectCalendarRepository extends JpaRepository<ProjectCalendar, Long> {
     Optional<ProjectCalendar> findByProjectId(Long projectId);
+
+    // Reads only the calendar's own columns; the project and events associations are never touched
+    @Query("SELECT new com.TPM.project_management_service.dto.ProjectCalendarResponse(" +
+           "c.id, c.project.id, c.name, c.description, c.createdAt, c.updatedAt) FROM ProjectCalendar c WHERE c.id = :id")
+    Optional<ProjectCalendarResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM ProjectCalendar c WHERE c.project.id = :projectId")
+    Optional<Long> findIdByProjectId(@Param("projectId") Long projectId);
+
+    // Relies on the unique project_id constraint, so concurrent callers end up with one calendar
+    @Modifying
+    @Query(value = "INSERT INTO project_calendars (project_id, name, description, created_at) " +
+                   "VALUES (:projectId, :name, :description, LOCALTIMESTAMP) ON CONFLICT (project_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("projectId") Long projectId,
+                       @Param("name") String name,
+                       @Param("description") String description);
+
+    @Modifying
+    @Query(value = "INSERT INTO project_calendars (project_id, name, description, created_at) " +
+                   "SELECT p.id, p.name || ' Calendar', 'Calendar for ' || p.name, LOCALTIMESTAMP FROM projects p " +
+                   "WHERE p.status = 'ACTIVE' ON CONFLICT (project_id) DO NOTHING", nativeQuery = true)
+    int insertMissingForActiveProjects();
+
+    // id, name, feedToken, contentVersion, contentUpdatedAt, createdAt; all a feed poll needs
+    @Query("SELECT c.id, c.name, c.feedToken, c.contentVersion, c.contentUpdatedAt, c.createdAt " +
+           "FROM ProjectCalendar c WHERE c.project.id = :projectId")
+    List<Object[]> findFeedStateByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = "UPDATE project_calendars SET content_version = COALESCE(content_version, 0) + 1, " +
+                   "content_updated_at = LOCALTIMESTAMP WHERE id = :calendarId", nativeQuery = true)
+    int markContentChanged(@Param("calendarId") Long calendarId);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_calendars WHERE project_id = :projectId", nativeQuery = true)
+    int deleteByProjectIdNative(@Param("projectId") Long projectId);
 }
@@ -0,0 +1,16 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.ProjectDeletionJob;
+import com.TPM.project_management_service.model.ProjectDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProjectDeletionJobRepository extends JpaRepository<ProjectDeletionJob, Long> {
+    Optional<ProjectDeletionJob> findTopByProjectIdOrderByIdDesc(Long projectId);
+    List<ProjectDeletionJob> findByStatusIn(Collection<ProjectDeletionStatus> statuses);
+}
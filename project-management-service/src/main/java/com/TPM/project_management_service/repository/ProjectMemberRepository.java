@@ -2,7 +2,12 @@ package com.TPM.project_management_service.repository;
 
 import com.TPM.project_management_service.model.ProjectMember;
 import com.TPM.project_management_service.model.ProjectRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,8 +16,14 @@ import java.util.Optional;
 @Repository
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {
     List<ProjectMember> findByProjectId(Long projectId);
+    Page<ProjectMember> findByProjectId(Long projectId, Pageable pageable);
     List<ProjectMember> findByUserId(Integer userId);
     List<ProjectMember> findByProjectIdAndRole(Long projectId, ProjectRole role);
     Optional<ProjectMember> findByProjectIdAndUserId(Long projectId, Integer userId);
     List<ProjectMember> findByInvitedByAndInvitationAccepted(Integer invitedBy, Boolean invitationAccepted);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_members_roles WHERE id IN (" +
+                   "SELECT id FROM project_members_roles WHERE project_id = :projectId LIMIT :limit)", nativeQuery = true)
+    int deleteBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
 }
@@ -2,13 +2,49 @@ package com.TPM.project_management_service.repository;
 
 import com.TPM.project_management_service.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByOwnerId(Integer ownerId);
     List<Project> findByMemberIdsContaining(Integer userId);
     List<Project> findByAdminIdsContaining(Integer userId);
+
+    // Of the given projects, those the user owns or is a member of
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :projectIds AND (p.ownerId = :userId OR EXISTS " +
+           "(SELECT m.id FROM ProjectMember m WHERE m.project.id = p.id AND m.userId = :userId))")
+    List<Long> findAccessibleProjectIds(@Param("projectIds") Collection<Long> projectIds, @Param("userId") Integer userId);
+
+    // Row locks on ACTIVE projects, held until commit. Anything writing a project's tasks, members,
+    // time entries or events takes the shared lock, and archiving takes the exclusive one before it
+    // reads the snapshot, so no write can commit between the snapshot and the status change
+    @Query(value = "SELECT id FROM projects WHERE id = :projectId AND status = 'ACTIVE' FOR SHARE", nativeQuery = true)
+    Optional<Long> lockActiveShared(@Param("projectId") Long projectId);
+
+    @Query(value = "SELECT id FROM projects WHERE id IN (:projectIds) AND status = 'ACTIVE' ORDER BY id FOR SHARE", nativeQuery = true)
+    List<Long> lockAllActiveShared(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query(value = "SELECT id FROM projects WHERE id = :projectId AND status = 'ACTIVE' FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockActiveExclusive(@Param("projectId") Long projectId);
+
+    // Native statements below bypass the entity's status restriction and are used by the background purge
+
+    @Modifying
+    @Query(value = "DELETE FROM project_members WHERE project_id = :projectId", nativeQuery = true)
+    int deleteLegacyMemberIds(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_admins WHERE project_id = :projectId", nativeQuery = true)
+    int deleteLegacyAdminIds(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM projects WHERE id = :projectId", nativeQuery = true)
+    int deleteProjectRow(@Param("projectId") Long projectId);
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package com.TPM.project_management_service.repository;
 import com.TPM.project_management_service.model.Task;
 import com.TPM.project_management_service.model.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +18,27 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByAssigneeId(Integer assigneeId);
     List<Task> findByCreatorId(Integer creatorId);
     List<Task> findByProjectIdAndStatus(Long projectId, TaskStatus status);
+    List<Task> findByProjectIdAndStatusNotOrderById(Long projectId, TaskStatus status);
+    List<Task> findByProjectIdAndStatusNotAndDeadlineGreaterThanEqualAndDeadlineLessThanOrderById(
+            Long projectId, TaskStatus status, LocalDateTime from, LocalDateTime to);
     List<Task> findByDeadlineBetween(LocalDateTime start, LocalDateTime end);
     List<Task> findByParentTaskId(Long parentTaskId);
+
+    @Query("SELECT t.id, t.project.id FROM Task t WHERE t.id IN :taskIds")
+    List<Object[]> findProjectIdsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT t.status, COUNT(t) FROM Task t WHERE t.project.id = :projectId GROUP BY t.status")
+    List<Object[]> countByStatusForProject(@Param("projectId") Long projectId);
+
+    // Subtasks reference their parent, so links are cut before tasks are deleted in arbitrary batches
+    @Modifying
+    @Query(value = "UPDATE tasks SET parent_task_id = NULL WHERE id IN (" +
+                   "SELECT id FROM tasks WHERE project_id = :projectId AND parent_task_id IS NOT NULL LIMIT :limit)",
+           nativeQuery = true)
+    int detachSubtaskBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE project_id = :projectId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
 }
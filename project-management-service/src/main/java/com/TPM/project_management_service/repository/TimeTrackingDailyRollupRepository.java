@@ -0,0 +1,88 @@
+package com.TPM.project_management_service.repository;
+
+import com.TPM.project_management_service.model.TimeTrackingDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TimeTrackingDailyRollupRepository extends JpaRepository<TimeTrackingDailyRollup, Long> {
+
+    // Adds a (possibly negative) delta to one day's totals, creating the row on first use
+    @Modifying
+    @Query(value = "INSERT INTO time_tracking_daily_rollups (project_id, task_id, user_id, day, total_seconds, entry_count) " +
+                   "VALUES (:projectId, :taskId, :userId, :day, :seconds, :entries) " +
+                   "ON CONFLICT (project_id, day, user_id, task_id) DO UPDATE SET " +
+                   "total_seconds = time_tracking_daily_rollups.total_seconds + EXCLUDED.total_seconds, " +
+                   "entry_count = time_tracking_daily_rollups.entry_count + EXCLUDED.entry_count", nativeQuery = true)
+    int addToDay(@Param("projectId") Long projectId,
+                 @Param("taskId") Long taskId,
+                 @Param("userId") Integer userId,
+                 @Param("day") LocalDate day,
+                 @Param("seconds") long seconds,
+                 @Param("entries") int entries);
+
+    // Continuation days of an entry spanning midnight hold seconds but no entry count, so both must be zero
+    @Modifying
+    @Query(value = "DELETE FROM time_tracking_daily_rollups " +
+                   "WHERE project_id = :projectId AND task_id = :taskId AND user_id = :userId " +
+                   "AND entry_count <= 0 AND total_seconds <= 0", nativeQuery = true)
+    int deleteEmpty(@Param("projectId") Long projectId, @Param("taskId") Long taskId, @Param("userId") Integer userId);
+
+    // Per-project advisory lock until the transaction ends: shared for incremental updates, exclusive for
+    // rebuildProject. Ids are folded into the lock's int key; a collision only makes two projects wait on each other
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(7301, CAST(:projectId % 2147483647 AS integer))", nativeQuery = true)
+    Integer lockShared(@Param("projectId") Long projectId);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(7301, CAST(:projectId % 2147483647 AS integer))", nativeQuery = true)
+    Integer lockExclusive(@Param("projectId") Long projectId);
+
+    @Query(value = "SELECT id FROM projects WHERE id > :afterId AND NOT rollups_built ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findProjectsWithoutRollups(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE projects SET rollups_built = true WHERE id = :projectId", nativeQuery = true)
+    int markRollupsBuilt(@Param("projectId") Long projectId);
+
+    // Recomputes a project's rollups from the raw entries exactly like the incremental path: entries are split
+    // at midnight, each day's seconds are truncated, and an entry is counted on its start day only
+    @Modifying
+    @Query(value = "INSERT INTO time_tracking_daily_rollups (project_id, task_id, user_id, day, total_seconds, entry_count) " +
+                   "SELECT t.project_id, tt.task_id, tt.user_id, CAST(d AS date), " +
+                   "CAST(SUM(FLOOR(EXTRACT(EPOCH FROM LEAST(tt.end_time, d + INTERVAL '1 day') - GREATEST(tt.start_time, d)))) AS bigint), " +
+                   "SUM(CASE WHEN d = date_trunc('day', tt.start_time) THEN 1 ELSE 0 END) " +
+                   "FROM time_tracking tt JOIN tasks t ON t.id = tt.task_id " +
+                   "CROSS JOIN LATERAL generate_series(date_trunc('day', tt.start_time), tt.end_time, INTERVAL '1 day') d " +
+                   "WHERE t.project_id = :projectId AND tt.end_time > tt.start_time AND d < tt.end_time " +
+                   "GROUP BY t.project_id, tt.task_id, tt.user_id, CAST(d AS date) " +
+                   "ON CONFLICT (project_id, day, user_id, task_id) DO UPDATE SET " +
+                   "total_seconds = EXCLUDED.total_seconds, entry_count = EXCLUDED.entry_count", nativeQuery = true)
+    int rebuildProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT r.userId, SUM(r.totalSeconds), SUM(r.entryCount) FROM TimeTrackingDailyRollup r " +
+           "WHERE r.projectId = :projectId AND r.day >= :from AND r.day < :to " +
+           "GROUP BY r.userId ORDER BY SUM(r.totalSeconds) DESC")
+    List<Object[]> sumByUser(@Param("projectId") Long projectId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.taskId, SUM(r.totalSeconds), SUM(r.entryCount) FROM TimeTrackingDailyRollup r " +
+           "WHERE r.projectId = :projectId AND r.day >= :from AND r.day < :to " +
+           "GROUP BY r.taskId ORDER BY SUM(r.totalSeconds) DESC")
+    List<Object[]> sumByTask(@Param("projectId") Long projectId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // ISO weeks, starting on Monday
+    @Query(value = "SELECT CAST(date_trunc('week', day) AS date) AS week_start, SUM(total_seconds), SUM(entry_count) " +
+                   "FROM time_tracking_daily_rollups " +
+                   "WHERE project_id = :projectId AND day >= :from AND day < :to " +
+                   "GROUP BY week_start ORDER BY week_start", nativeQuery = true)
+    List<Object[]> sumByWeek(@Param("projectId") Long projectId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM time_tracking_daily_rollups WHERE id IN (" +
+                   "SELECT id FROM time_tracking_daily_rollups WHERE project_id = :projectId LIMIT :limit)", nativeQuery = true)
+    int deleteBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
+}
@@ -1,11 +1,16 @@
 package com.TPM.project_management_service.repository;
 
 import com.TPM.project_management_service.model.TimeTracking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TimeTrackingRepository extends JpaRepository<TimeTracking, Long> {
@@ -13,4 +18,65 @@ public interface TimeTrackingRepository extends JpaRepository<TimeTracking, Long
     List<TimeTracking> findByUserId(Integer userId);
     List<TimeTracking> findByTaskIdAndUserId(Long taskId, Integer userId);
     List<TimeTracking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
+    List<TimeTracking> findByTaskProjectId(Long projectId);
+    List<TimeTracking> findByUserIdAndTaskProjectIdAndEndTimeIsNull(Integer userId, Long projectId);
+
+    @Query("SELECT tt FROM TimeTracking tt JOIN FETCH tt.task WHERE tt.endTime IS NULL")
+    List<TimeTracking> findRunningWithTask();
+
+    // Serializes timer starts of one user across instances until the transaction ends. time_tracking is
+    // partitioned by start_time, so a unique index on running entries per user cannot be declared
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(7302, :userId)", nativeQuery = true)
+    Integer lockUserTimers(@Param("userId") Integer userId);
+
+    @Query(value = "SELECT id FROM time_tracking WHERE user_id = :userId AND end_time IS NULL LIMIT 1", nativeQuery = true)
+    Optional<Long> findRunningIdByUserId(@Param("userId") Integer userId);
+
+    // Newest first; (startTime, id) is the keyset so pages stay stable while entries are added
+    @Query("SELECT tt FROM TimeTracking tt JOIN FETCH tt.task t " +
+           "WHERE tt.userId = :userId AND t.project.id = :projectId " +
+           "AND tt.startTime >= :from AND tt.startTime < :to " +
+           "ORDER BY tt.startTime DESC, tt.id DESC")
+    List<TimeTracking> findUserPageInProject(@Param("userId") Integer userId,
+                                             @Param("projectId") Long projectId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Pageable pageable);
+
+    @Query("SELECT tt FROM TimeTracking tt JOIN FETCH tt.task t " +
+           "WHERE tt.userId = :userId AND t.project.id = :projectId " +
+           "AND tt.startTime >= :from AND tt.startTime < :to " +
+           "AND (tt.startTime < :cursorStart OR (tt.startTime = :cursorStart AND tt.id < :cursorId)) " +
+           "ORDER BY tt.startTime DESC, tt.id DESC")
+    List<TimeTracking> findUserPageInProjectAfter(@Param("userId") Integer userId,
+                                                  @Param("projectId") Long projectId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM time_tracking WHERE end_time IS NOT NULL AND duration_seconds IS NULL)",
+           nativeQuery = true)
+    boolean existsMissingDuration();
+
+    // Last id of the next :limit rows after :afterId, walked along the id index; null past the end
+    @Query(value = "SELECT MAX(id) FROM (SELECT id FROM time_tracking WHERE id > :afterId ORDER BY id LIMIT :limit) w",
+           nativeQuery = true)
+    Long findIdWindowEnd(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    // Same arithmetic as TimeTracking.computeDuration: whole seconds, minutes truncated
+    @Modifying
+    @Query(value = "UPDATE time_tracking SET " +
+                   "duration_seconds = CAST(FLOOR(EXTRACT(EPOCH FROM end_time - start_time)) AS bigint), " +
+                   "duration_minutes = CAST(TRUNC(FLOOR(EXTRACT(EPOCH FROM end_time - start_time)) / 60) AS integer) " +
+                   "WHERE id > :afterId AND id <= :upToId " +
+                   "AND end_time IS NOT NULL AND duration_seconds IS NULL", nativeQuery = true)
+    int backfillDurationRange(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Modifying
+    @Query(value = "DELETE FROM time_tracking WHERE id IN (" +
+                   "SELECT tt.id FROM time_tracking tt JOIN tasks t ON t.id = tt.task_id " +
+                   "WHERE t.project_id = :projectId LIMIT :limit)", nativeQuery = true)
+    int deleteBatchByProjectId(@Param("projectId") Long projectId, @Param("limit") int limit);
 }
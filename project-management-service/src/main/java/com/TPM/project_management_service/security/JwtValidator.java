@@ -10,6 +10,7 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Slf4j
@@ -51,6 +52,21 @@ public class JwtValidator {
         }
     }
     
+    /**
+     * Parses a token signed with this service's key that has not expired
+     * 
+     * @param token The JWT token, with or without the "Bearer " prefix
+     * @return The token's claims, or empty if it is invalid or signed with another key
+     */
+    public Optional<Claims> parseValidToken(String token) {
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (Exception e) {
+            log.debug("Token not valid for local verification: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
     /**
      * Extracts the username (subject) from the JWT token
      * 
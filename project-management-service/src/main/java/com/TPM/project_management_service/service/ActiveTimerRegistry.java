@@ -0,0 +1,117 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.ActiveTimerResponse;
+import com.TPM.project_management_service.exception.TimerAlreadyRunningException;
+import com.TPM.project_management_service.model.TimeTracking;
+import com.TPM.project_management_service.repository.TimeTrackingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the running timer of every user, so "what is running now" never queries
+ * time_tracking. It is rebuilt from the database on startup and updated only after the
+ * transaction that started or stopped a timer commits. The one-running-timer rule itself is
+ * enforced in the database by {@link TimeTrackingService}; this view assumes a single instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveTimerRegistry {
+    // Placeholder held while a start is in flight, so concurrent starts for one user cannot both pass
+    private static final ActiveTimerResponse STARTING = new ActiveTimerResponse();
+
+    private final TimeTrackingRepository timeTrackingRepository;
+    private final Map<Integer, ActiveTimerResponse> runningByUser = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        runningByUser.clear();
+        List<TimeTracking> running = timeTrackingRepository.findRunningWithTask();
+        for (TimeTracking timeTracking : running) {
+            // Older data may hold several running timers per user; the most recent one wins
+            runningByUser.merge(timeTracking.getUserId(), toActiveTimer(timeTracking),
+                    (current, candidate) -> candidate.getStartTime().isAfter(current.getStartTime()) ? candidate : current);
+        }
+        log.info("Active timer registry loaded with {} running timers", runningByUser.size());
+    }
+
+    public Optional<ActiveTimerResponse> getRunning(Integer userId) {
+        ActiveTimerResponse timer = runningByUser.get(userId);
+        return timer == null || timer == STARTING ? Optional.empty() : Optional.of(timer);
+    }
+
+    public List<ActiveTimerResponse> getAllRunning() {
+        return runningByUser.values().stream()
+                .filter(timer -> timer != STARTING)
+                .toList();
+    }
+
+    /**
+     * Claims the user's single timer slot for the current transaction. The slot is filled by
+     * {@link #registerStarted} after commit and released again if the transaction rolls back.
+     */
+    public void reserve(Integer userId) {
+        ActiveTimerResponse existing = runningByUser.putIfAbsent(userId, STARTING);
+        if (existing != null) {
+            throw new TimerAlreadyRunningException(existing == STARTING
+                    ? "A timer is already being started for this user"
+                    : "User already has a running timer with id: " + existing.getTimeTrackingId());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    runningByUser.remove(userId, STARTING);
+                }
+            }
+        });
+    }
+
+    public void registerStarted(TimeTracking timeTracking) {
+        ActiveTimerResponse timer = toActiveTimer(timeTracking);
+        afterCommit(() -> runningByUser.put(timer.getUserId(), timer));
+    }
+
+    public void registerStopped(Integer userId, Long timeTrackingId) {
+        afterCommit(() -> runningByUser.computeIfPresent(userId,
+                (key, timer) -> timeTrackingId.equals(timer.getTimeTrackingId()) ? null : timer));
+    }
+
+    /**
+     * Drops the timers of a project whose entries were removed in bulk, e.g. by a purge.
+     */
+    public void forgetProject(Long projectId) {
+        runningByUser.values().removeIf(timer -> projectId.equals(timer.getProjectId()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private ActiveTimerResponse toActiveTimer(TimeTracking timeTracking) {
+        return new ActiveTimerResponse(timeTracking.getId(), timeTracking.getTask().getProject().getId(),
+                timeTracking.getTask().getId(), timeTracking.getUserId(), timeTracking.getStartTime(),
+                timeTracking.getDescription());
+    }
+}
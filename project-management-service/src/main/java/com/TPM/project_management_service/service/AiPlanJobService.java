@@ -0,0 +1,540 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.AiPlanJobResponse;
+import com.TPM.project_management_service.dto.BulkAiPlanRequest;
+import com.TPM.project_management_service.dto.BulkAiPlanResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.TaskNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.AiPlanJob;
+import com.TPM.project_management_service.model.AiPlanJobStatus;
+import com.TPM.project_management_service.model.AiTaskPlan;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.model.TaskStatus;
+import com.TPM.project_management_service.repository.AiPlanJobRepository;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates AI task plans in the background, so a model call never holds a request thread.
+ * A job is recorded in ai_plan_jobs and run on the bounded aiPlanExecutor; clients poll the job
+ * or subscribe to it over SSE and get one {@code completed} or {@code failed} event. Plans come
+ * from {@link AiTaskPlanCache}, so an unchanged task completes without calling the model. Jobs
+ * still queued or running at shutdown are resumed on startup. {@link #submitBulk} queues jobs for
+ * many tasks, packing small ones into shared model calls on a separate pool and rate limiter.
+ * <p>
+ * SSE subscribers are held in memory and only notified by the instance that ran the job.
+ */
+@Service
+@Slf4j
+public class AiPlanJobService {
+    private static final EnumSet<AiPlanJobStatus> FINISHED = EnumSet.of(AiPlanJobStatus.COMPLETED, AiPlanJobStatus.FAILED);
+    private static final EnumSet<AiPlanJobStatus> IN_FLIGHT = EnumSet.of(AiPlanJobStatus.PENDING, AiPlanJobStatus.RUNNING);
+
+    private final AiPlanJobRepository aiPlanJobRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskRepository taskRepository;
+    private final AiTaskPlanCache aiTaskPlanCache;
+    private final AiTaskAssistantService aiTaskAssistantService;
+    private final CurrentUserService currentUserService;
+    private final TaskExecutor aiPlanExecutor;
+    private final TaskExecutor aiBulkExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${application.ai.job-event-timeout:5m}")
+    private Duration eventTimeout;
+
+    @Value("${application.ai.job-retention:1d}")
+    private Duration jobRetention;
+
+    @Value("${application.ai.bulk.max-tasks:200}")
+    private int bulkMaxTasks;
+
+    // Tasks planned together in one model call, and the largest task (title and description) that is packed
+    @Value("${application.ai.bulk.pack-size:5}")
+    private int packSize;
+
+    @Value("${application.ai.bulk.pack-max-chars:1500}")
+    private int packMaxChars;
+
+    public AiPlanJobService(AiPlanJobRepository aiPlanJobRepository,
+                            ProjectRepository projectRepository,
+                            ProjectMemberRepository projectMemberRepository,
+                            TaskRepository taskRepository,
+                            AiTaskPlanCache aiTaskPlanCache,
+                            AiTaskAssistantService aiTaskAssistantService,
+                            CurrentUserService currentUserService,
+                            @Qualifier("aiPlanExecutor") TaskExecutor aiPlanExecutor,
+                            @Qualifier("aiBulkExecutor") TaskExecutor aiBulkExecutor,
+                            PlatformTransactionManager transactionManager) {
+        this.aiPlanJobRepository = aiPlanJobRepository;
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.taskRepository = taskRepository;
+        this.aiTaskPlanCache = aiTaskPlanCache;
+        this.aiTaskAssistantService = aiTaskAssistantService;
+        this.currentUserService = currentUserService;
+        this.aiPlanExecutor = aiPlanExecutor;
+        this.aiBulkExecutor = aiBulkExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a job and queues it. When the queue is full the job is returned already FAILED.
+     */
+    public AiPlanJobResponse submitJob(Long projectId, Long taskId, boolean regenerate, String token) {
+        try {
+            Integer userId = authorize(projectId, token);
+            log.info("Queueing AI plan job for task {} in project {} by user {}", taskId, projectId, userId);
+
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+
+            // Verify that the task belongs to the specified project
+            if (!task.getProject().getId().equals(projectId)) {
+                throw new IllegalArgumentException("Task does not belong to the specified project");
+            }
+
+            AiPlanJob job = new AiPlanJob();
+            job.setProjectId(projectId);
+            job.setTaskId(taskId);
+            job.setRequestedBy(userId);
+            job.setRegenerate(regenerate);
+            job = aiPlanJobRepository.save(job);
+
+            try {
+                submit(job.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("AI plan queue is full, refusing job {}", job.getId());
+                job.setStatus(AiPlanJobStatus.FAILED);
+                job.setErrorMessage("Too many AI plans are being generated; try again later");
+                job.setFinishedAt(LocalDateTime.now());
+                job = aiPlanJobRepository.save(job);
+            }
+            return mapToAiPlanJobResponse(job);
+        } catch (Exception e) {
+            log.error("Error queueing AI plan job for task {}: {}", taskId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Queues plans for many tasks at once: the given tasks, or the project's open tasks,
+     * optionally those due within a sprint's deadline window. Tasks with a valid stored plan
+     * complete immediately, and tasks that already have a pending or running job get that job
+     * back rather than a second model call. The rest are packed, several small tasks per model
+     * call, into batches that run on aiBulkExecutor under the bulk rate limiter, so a large run
+     * proceeds at the provider's rate without holding up interactive plans or single jobs.
+     */
+    public BulkAiPlanResponse submitBulk(Long projectId, BulkAiPlanRequest request, String token) {
+        try {
+            Integer userId = authorize(projectId, token);
+            List<Task> tasks = selectTasks(projectId, request);
+            log.info("Queueing AI plans for {} tasks in project {} by user {}", tasks.size(), projectId, userId);
+
+            Map<Long, AiPlanJob> inFlight = new HashMap<>();
+            if (!tasks.isEmpty()) {
+                for (AiPlanJob job : aiPlanJobRepository.findByTaskIdInAndStatusIn(
+                        tasks.stream().map(Task::getId).toList(), IN_FLIGHT)) {
+                    inFlight.putIfAbsent(job.getTaskId(), job);
+                }
+            }
+
+            List<AiPlanJob> jobs = new ArrayList<>();
+            Map<Long, Task> tasksById = new HashMap<>();
+            for (Task task : tasks) {
+                if (inFlight.containsKey(task.getId())) {
+                    continue;
+                }
+                tasksById.put(task.getId(), task);
+                AiPlanJob job = new AiPlanJob();
+                job.setProjectId(projectId);
+                job.setTaskId(task.getId());
+                job.setRequestedBy(userId);
+                job.setRegenerate(request.isRegenerate());
+                job.setBulk(true);
+                Optional<AiTaskPlan> stored = request.isRegenerate() ? Optional.empty()
+                        : aiTaskPlanCache.findFresh(task.getId(), aiTaskAssistantService.contentHash(task));
+                if (stored.isPresent()) {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus(AiPlanJobStatus.COMPLETED);
+                    job.setPlan(stored.get().getPlan());
+                    job.setCached(true);
+                    job.setStartedAt(now);
+                    job.setFinishedAt(now);
+                }
+                jobs.add(job);
+            }
+            jobs = aiPlanJobRepository.saveAll(jobs);
+
+            BulkAiPlanResponse response = new BulkAiPlanResponse();
+            response.setProjectId(projectId);
+            List<List<AiPlanJob>> batches = pack(jobs.stream()
+                    .filter(job -> job.getStatus() == AiPlanJobStatus.PENDING)
+                    .toList(), tasksById);
+            for (List<AiPlanJob> batch : batches) {
+                try {
+                    submitBatch(batch.stream().map(AiPlanJob::getId).toList());
+                } catch (RejectedExecutionException e) {
+                    log.warn("AI bulk plan queue is full, refusing {} jobs", batch.size());
+                    for (AiPlanJob job : batch) {
+                        job.setStatus(AiPlanJobStatus.FAILED);
+                        job.setErrorMessage("Too many AI plans are being generated; try again later");
+                        job.setFinishedAt(LocalDateTime.now());
+                    }
+                    aiPlanJobRepository.saveAll(batch);
+                }
+            }
+
+            for (AiPlanJob job : inFlight.values()) {
+                response.setInFlightCount(response.getInFlightCount() + 1);
+                response.getJobs().add(mapToAiPlanJobResponse(job));
+            }
+            for (AiPlanJob job : jobs) {
+                if (job.isCached()) {
+                    response.setCachedCount(response.getCachedCount() + 1);
+                } else if (job.getStatus() == AiPlanJobStatus.PENDING) {
+                    response.setQueuedCount(response.getQueuedCount() + 1);
+                }
+                response.getJobs().add(mapToAiPlanJobResponse(job));
+            }
+            response.setBatchCount(batches.size());
+            return response;
+        } catch (Exception e) {
+            log.error("Error queueing AI plans for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    public AiPlanJobResponse getJob(Long projectId, Long taskId, Long jobId, String token) {
+        try {
+            authorize(projectId, token);
+            return mapToAiPlanJobResponse(findJob(projectId, taskId, jobId));
+        } catch (Exception e) {
+            log.error("Error getting AI plan job {}: {}", jobId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an SSE stream that receives a single event when the job finishes, immediately if it
+     * already has.
+     */
+    public SseEmitter subscribe(Long projectId, Long taskId, Long jobId, String token) {
+        try {
+            authorize(projectId, token);
+            findJob(projectId, taskId, jobId);
+
+            SseEmitter emitter = new SseEmitter(eventTimeout.toMillis());
+            subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+            Runnable unsubscribe = () -> subscribers.computeIfPresent(jobId, (id, emitters) -> {
+                emitters.remove(emitter);
+                return emitters.isEmpty() ? null : emitters;
+            });
+            emitter.onCompletion(unsubscribe);
+            emitter.onTimeout(unsubscribe);
+            emitter.onError(error -> unsubscribe.run());
+
+            // Re-read after subscribing: a job that finished in between is not missed
+            AiPlanJob job = aiPlanJobRepository.findById(jobId).orElseThrow();
+            if (FINISHED.contains(job.getStatus())) {
+                notifySubscribers(job);
+            }
+            return emitter;
+        } catch (Exception e) {
+            log.error("Error subscribing to AI plan job {}: {}", jobId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (AiPlanJob job : aiPlanJobRepository.findByStatusIn(EnumSet.of(AiPlanJobStatus.PENDING, AiPlanJobStatus.RUNNING))) {
+            log.info("Resuming AI plan job {} for task {}", job.getId(), job.getTaskId());
+            try {
+                if (job.isBulk()) {
+                    submitBatch(List.of(job.getId()));
+                } else {
+                    submit(job.getId());
+                }
+            } catch (RejectedExecutionException e) {
+                log.warn("AI plan queue is full, job {} stays pending until the next restart", job.getId());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${application.ai.plan-sweep-cron:0 45 3 * * *}")
+    public void removeFinishedJobs() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    aiPlanJobRepository.deleteFinishedBefore(LocalDateTime.now().minus(jobRetention)));
+            log.info("Removed {} finished AI plan jobs", deleted);
+        } catch (Exception e) {
+            log.error("Error removing finished AI plan jobs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets or generates a task's plan on aiPlanExecutor for the plain plan endpoint, which answers
+     * from the returned future instead of holding its request thread for the model call. Throws
+     * RejectedExecutionException when the queue is full.
+     */
+    public CompletableFuture<AiTaskPlanCache.Plan> generatePlan(Long taskId, boolean regenerate) {
+        return CompletableFuture.supplyAsync(() -> {
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+            return aiTaskPlanCache.getOrGenerate(task, regenerate);
+        }, aiPlanExecutor);
+    }
+
+    private void submit(Long jobId) {
+        aiPlanExecutor.execute(() -> run(jobId));
+    }
+
+    private void submitBatch(List<Long> jobIds) {
+        aiBulkExecutor.execute(() -> runBatch(jobIds));
+    }
+
+    private void run(Long jobId) {
+        for (AiPlanJob job : start(List.of(jobId))) {
+            try {
+                Task task = taskRepository.findById(job.getTaskId())
+                        .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + job.getTaskId()));
+                AiTaskPlanCache.Plan plan = aiTaskPlanCache.getOrGenerate(task, job.isRegenerate());
+                complete(job, plan.plan(), plan.cached());
+            } catch (Exception e) {
+                log.error("Error running AI plan job {}: {}", job.getId(), e.getMessage(), e);
+                fail(job, e.getMessage());
+            }
+        }
+    }
+
+    private void runBatch(List<Long> jobIds) {
+        List<AiPlanJob> jobs = start(jobIds);
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Map<Long, Task> tasks = new HashMap<>();
+        taskRepository.findAllById(jobs.stream().map(AiPlanJob::getTaskId).toList())
+                .forEach(task -> tasks.put(task.getId(), task));
+
+        Map<Long, String> packedPlans = Map.of();
+        if (tasks.size() > 1) {
+            try {
+                packedPlans = aiTaskAssistantService.requestTaskPlans(new ArrayList<>(tasks.values()));
+            } catch (Exception e) {
+                // Planning each task on its own now would wait for more permits and double the model calls
+                log.warn("Packed AI plan request for {} tasks failed: {}", tasks.size(), e.getMessage());
+                jobs.forEach(job -> fail(job, failureMessage(e)));
+                return;
+            }
+        }
+
+        // Tasks the packed answer left out, and large tasks batched alone, get a call of their own
+        String rateLimited = null;
+        for (AiPlanJob job : jobs) {
+            Task task = tasks.get(job.getTaskId());
+            if (task == null) {
+                fail(job, "Task not found with id: " + job.getTaskId());
+                continue;
+            }
+            if (rateLimited != null) {
+                fail(job, rateLimited);
+                continue;
+            }
+            try {
+                String plan = packedPlans.get(task.getId());
+                if (plan == null) {
+                    plan = aiTaskAssistantService.requestTaskPlan(task, true);
+                }
+                aiTaskPlanCache.store(task.getId(), aiTaskAssistantService.contentHash(task), plan, LocalDateTime.now());
+                complete(job, plan, false);
+            } catch (RequestNotPermitted e) {
+                rateLimited = failureMessage(e);
+                fail(job, rateLimited);
+            } catch (Exception e) {
+                log.error("Error running AI plan job {}: {}", job.getId(), e.getMessage(), e);
+                fail(job, failureMessage(e));
+            }
+        }
+    }
+
+    private List<AiPlanJob> start(List<Long> jobIds) {
+        List<AiPlanJob> jobs = new ArrayList<>();
+        for (AiPlanJob job : aiPlanJobRepository.findAllById(jobIds)) {
+            if (!FINISHED.contains(job.getStatus())) {
+                job.setStatus(AiPlanJobStatus.RUNNING);
+                job.setStartedAt(LocalDateTime.now());
+                jobs.add(job);
+            }
+        }
+        return jobs.isEmpty() ? jobs : aiPlanJobRepository.saveAll(jobs);
+    }
+
+    private void complete(AiPlanJob job, String plan, boolean cached) {
+        job.setStatus(AiPlanJobStatus.COMPLETED);
+        job.setPlan(plan);
+        job.setCached(cached);
+        job.setFinishedAt(LocalDateTime.now());
+        notifySubscribers(aiPlanJobRepository.save(job));
+    }
+
+    private void fail(AiPlanJob job, String message) {
+        job.setStatus(AiPlanJobStatus.FAILED);
+        job.setErrorMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        notifySubscribers(aiPlanJobRepository.save(job));
+    }
+
+    private static String failureMessage(Exception e) {
+        return e instanceof RequestNotPermitted
+                ? "AI rate limit reached; try again later"
+                : "Could not generate AI task plan: " + e.getMessage();
+    }
+
+    private void notifySubscribers(AiPlanJob job) {
+        // Removing the list first means every subscriber is notified exactly once
+        List<SseEmitter> emitters = subscribers.remove(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        AiPlanJobResponse response = mapToAiPlanJobResponse(job);
+        String eventName = job.getStatus() == AiPlanJobStatus.COMPLETED ? "completed" : "failed";
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().id(String.valueOf(job.getId())).name(eventName).data(response));
+                emitter.complete();
+            } catch (Exception e) {
+                // The client went away; it can still poll the job
+                log.debug("Could not notify subscriber of AI plan job {}: {}", job.getId(), e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private List<Task> selectTasks(Long projectId, BulkAiPlanRequest request) {
+        List<Task> tasks;
+        if (request.getTaskIds() != null && !request.getTaskIds().isEmpty()) {
+            Set<Long> taskIds = new LinkedHashSet<>(request.getTaskIds());
+            if (taskIds.size() > bulkMaxTasks) {
+                throw new IllegalArgumentException("At most " + bulkMaxTasks + " tasks can be planned at once");
+            }
+            tasks = taskRepository.findAllById(taskIds);
+            if (tasks.size() != taskIds.size()) {
+                throw new TaskNotFoundException("Some of the requested tasks were not found");
+            }
+            for (Task task : tasks) {
+                if (!task.getProject().getId().equals(projectId)) {
+                    throw new IllegalArgumentException("Task " + task.getId() + " does not belong to the specified project");
+                }
+            }
+        } else if (request.getDeadlineFrom() != null || request.getDeadlineTo() != null) {
+            if (request.getDeadlineFrom() == null || request.getDeadlineTo() == null
+                    || !request.getDeadlineTo().isAfter(request.getDeadlineFrom())) {
+                throw new IllegalArgumentException("deadlineFrom and deadlineTo must be given together, with deadlineTo after deadlineFrom");
+            }
+            tasks = taskRepository.findByProjectIdAndStatusNotAndDeadlineGreaterThanEqualAndDeadlineLessThanOrderById(
+                    projectId, TaskStatus.DONE, request.getDeadlineFrom(), request.getDeadlineTo());
+        } else {
+            tasks = taskRepository.findByProjectIdAndStatusNotOrderById(projectId, TaskStatus.DONE);
+        }
+        if (tasks.size() > bulkMaxTasks) {
+            throw new IllegalArgumentException("At most " + bulkMaxTasks + " tasks can be planned at once; "
+                    + tasks.size() + " match");
+        }
+        return tasks;
+    }
+
+    /**
+     * Groups small tasks into batches of up to packSize; a task with a long title and
+     * description gets a model call of its own.
+     */
+    private List<List<AiPlanJob>> pack(List<AiPlanJob> jobs, Map<Long, Task> tasksById) {
+        List<List<AiPlanJob>> batches = new ArrayList<>();
+        List<AiPlanJob> current = new ArrayList<>();
+        for (AiPlanJob job : jobs) {
+            Task task = tasksById.get(job.getTaskId());
+            int size = task.getTitle().length() + (task.getDescription() != null ? task.getDescription().length() : 0);
+            if (size > packMaxChars) {
+                batches.add(List.of(job));
+                continue;
+            }
+            current.add(job);
+            if (current.size() >= packSize) {
+                batches.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private Integer authorize(Long projectId, String token) {
+        var userProfile = currentUserService.resolve(token);
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+        // Check if user is a member of the project
+        Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+        if (memberOpt.isEmpty() && !project.getOwnerId().equals(userProfile.getUser().getId())) {
+            throw new UnauthorizedAccessException("User is not a member of this project");
+        }
+        return userProfile.getUser().getId();
+    }
+
+    private AiPlanJob findJob(Long projectId, Long taskId, Long jobId) {
+        return aiPlanJobRepository.findById(jobId)
+                .filter(job -> job.getProjectId().equals(projectId) && job.getTaskId().equals(taskId))
+                .orElseThrow(() -> new IllegalArgumentException("AI plan job not found with id: " + jobId));
+    }
+
+    private AiPlanJobResponse mapToAiPlanJobResponse(AiPlanJob job) {
+        AiPlanJobResponse response = new AiPlanJobResponse();
+        response.setJobId(job.getId());
+        response.setProjectId(job.getProjectId());
+        response.setTaskId(job.getTaskId());
+        response.setStatus(job.getStatus());
+        response.setPlan(job.getPlan());
+        response.setCached(job.isCached());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        return response;
+    }
+}
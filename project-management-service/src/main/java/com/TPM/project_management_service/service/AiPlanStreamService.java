@@ -0,0 +1,140 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.AiTaskPlanResponse;
+import com.TPM.project_management_service.dto.ErrorResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.TaskNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.AiTaskPlan;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Streams an AI task plan to the client as it is generated. Each piece of text is relayed as a
+ * {@code token} event the moment the model produces it, followed by one {@code done} event with
+ * the complete plan, or an {@code error} event. A plan still valid in {@link AiTaskPlanCache} is
+ * sent as {@code done} straight away, and a streamed plan is stored there once complete.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiPlanStreamService {
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskRepository taskRepository;
+    private final AiTaskAssistantService aiTaskAssistantService;
+    private final AiTaskPlanCache aiTaskPlanCache;
+    private final CurrentUserService currentUserService;
+
+    @Value("${application.ai.job-event-timeout:5m}")
+    private Duration eventTimeout;
+
+    public SseEmitter streamPlan(Long projectId, Long taskId, boolean regenerate, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Streaming AI task plan for task {} in project {} by user {}",
+                     taskId, projectId, userProfile.getUser().getId());
+
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+            // Check if user is a member of the project
+            Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+            if (memberOpt.isEmpty() && !project.getOwnerId().equals(userProfile.getUser().getId())) {
+                throw new UnauthorizedAccessException("User is not a member of this project");
+            }
+
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+
+            // Verify that the task belongs to the specified project
+            if (!task.getProject().getId().equals(projectId)) {
+                throw new IllegalArgumentException("Task does not belong to the specified project");
+            }
+
+            SseEmitter emitter = new SseEmitter(eventTimeout.toMillis());
+            String contentHash = aiTaskAssistantService.contentHash(task);
+            Optional<AiTaskPlan> stored = regenerate ? Optional.empty() : aiTaskPlanCache.findFresh(taskId, contentHash);
+            if (stored.isPresent()) {
+                sendDone(emitter, task, stored.get().getPlan(), true, stored.get().getGeneratedAt());
+                return emitter;
+            }
+
+            CompletableFuture<String> plan = aiTaskAssistantService.streamTaskPlan(task, content -> {
+                try {
+                    emitter.send(SseEmitter.event().name("token").data(Map.of("content", content), MediaType.APPLICATION_JSON));
+                } catch (IOException e) {
+                    // Client disconnected; throwing cancels the upstream request
+                    throw new UncheckedIOException(e);
+                }
+            });
+            emitter.onTimeout(() -> plan.cancel(true));
+            emitter.onError(error -> plan.cancel(true));
+            plan.whenComplete((text, error) -> {
+                if (error != null || text == null || text.isEmpty()) {
+                    String message = error != null ? error.getMessage() : "Unable to generate AI task plan at this time.";
+                    log.error("Error streaming AI task plan for task {}: {}", taskId, message);
+                    sendError(emitter, message);
+                    return;
+                }
+                LocalDateTime generatedAt = LocalDateTime.now();
+                try {
+                    aiTaskPlanCache.store(taskId, contentHash, text, generatedAt);
+                } catch (Exception e) {
+                    log.error("Error storing streamed AI task plan for task {}: {}", taskId, e.getMessage(), e);
+                }
+                sendDone(emitter, task, text, false, generatedAt);
+            });
+            return emitter;
+        } catch (Exception e) {
+            log.error("Error streaming AI task plan for task {}: {}", taskId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private void sendDone(SseEmitter emitter, Task task, String plan, boolean cached, LocalDateTime generatedAt) {
+        AiTaskPlanResponse response = AiTaskPlanResponse.builder()
+                .taskId(task.getId())
+                .taskTitle(task.getTitle())
+                .plan(plan)
+                .cached(cached)
+                .generatedAt(generatedAt)
+                .build();
+        try {
+            emitter.send(SseEmitter.event().name("done").data(response, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception e) {
+            log.debug("Could not send AI task plan for task {}: {}", task.getId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error")
+                    .data(new ErrorResponse(HttpStatus.BAD_GATEWAY.value(), "Error generating AI task plan: " + message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -3,6 +3,12 @@ package com.TPM.project_management_service.service;
 import com.TPM.project_management_service.dto.TaskResponse;
 import com.TPM.project_management_service.model.Task;
 import com.TPM.project_management_service.model.TaskPriority;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,16 +19,47 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.LocalDateTime;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AiTaskAssistantService {
+    // Part of every plan's content hash; bump it when the prompt changes so cached plans are regenerated
+    private static final String PROMPT_VERSION = "1";
+    // Separate budgets, together within the provider's limit, so bulk runs cannot starve interactive requests
+    private static final String INTERACTIVE_RATE_LIMITER = "ai-api";
+    private static final String BULK_RATE_LIMITER = "ai-api-bulk";
+    private static final int MAX_PACKED_TOKENS = 8192;
+    private static final ScheduledExecutorService STREAM_WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-stream-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Value("${spring.ai.openai.chat.base-url}")
     private String geminiBaseUrl;
@@ -36,83 +73,303 @@ public class AiTaskAssistantService {
     @Value("${spring.ai.openai.chat.options.model}")
     private String model;
 
+    // Time allowed until a streamed completion starts answering
+    @Value("${application.ai.stream-timeout:30s}")
+    private Duration streamTimeout;
+
+    // Longest silence tolerated between two pieces of a streamed completion
+    @Value("${application.ai.stream-idle-timeout:20s}")
+    private Duration streamIdleTimeout;
+
     private final RestTemplate restTemplate;
+    private final HttpClient aiHttpClient;
+    private final ObjectMapper objectMapper;
+    // Every call to the model API takes a permit, so all AI features together stay within the provider's rate limit
+    private final RateLimiterRegistry rateLimiterRegistry;
 
     public String generateTaskPlan(Task task) {
-        log.info("Generating AI task plan for task: {}", task.getId());
         try {
-            // Build the URL without query parameters
-            String apiUrl = geminiBaseUrl + completionsPath;
-            
-            // Format task details for prompt
-            String taskDescription = task.getDescription() != null ? task.getDescription() : "No description provided";
-            String priorityLevel = task.getPriority().toString();
-            String deadlineStr = task.getDeadline() != null ? 
-                task.getDeadline().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : 
-                "No deadline set";
-            
-            // Create prompt
-            String prompt = String.format(
-                "You are an AI assistant for project management. Create a personalized task plan for the following task:\n\n" +
-                "Task: %s\n" +
-                "Description: %s\n" +
-                "Priority: %s\n" +
-                "Deadline: %s\n" +
-                "Estimated Hours: %s\n\n" +
-                "Based on this information, provide a detailed plan including:\n" +
-                "1. A recommended time schedule with milestones\n" +
-                "2. Suggestions for breaking down the task into smaller steps\n" +
-                "3. Best practices for approaching this type of task\n" +
-                "4. Tips for managing time efficiently given the priority and deadline\n" +
-                "Format the response in a clear, concise way that's easy to follow.",
-                task.getTitle(),
-                taskDescription,
-                priorityLevel,
-                deadlineStr,
-                task.getEstimatedHours() != null ? task.getEstimatedHours() + " hours" : "Not specified"
-            );
-
-            // Prepare request headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            // Use Authorization header with Bearer token format
-            headers.set("Authorization", "Bearer " + apiKey);
-
-            // Prepare request body
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-            message.put("content", prompt);
-            
-            requestBody.put("model", model);
-            requestBody.put("messages", new Object[]{message});
-            requestBody.put("max_tokens", 1024);
-            requestBody.put("temperature", 0.7);
-            
-            // Make API call
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-            Map<String, Object> response = restTemplate.postForObject(apiUrl, request, Map.class);
-            
-            if (response != null && response.containsKey("choices")) {
-                // Handle the choices as a List instead of an array
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
-                if (!choices.isEmpty()) {
-                    Map<String, Object> choice = choices.get(0);
-                    Map<String, Object> messageResponse = (Map<String, Object>) choice.get("message");
-                    return (String) messageResponse.get("content");
-                }
-            }
-            
-            // Log the actual response to help with debugging
-            log.info("API Response structure: {}", response);
-            
-            return "Unable to generate AI task plan at this time.";
+            return requestTaskPlan(task);
         } catch (Exception e) {
             log.error("Error generating AI task plan: {}", e.getMessage(), e);
             return "Error generating AI task plan: " + e.getMessage();
         }
     }
 
+    /**
+     * Asks the model for a plan; unlike {@link #generateTaskPlan(Task)} failures are thrown, so
+     * callers can tell a plan from an error message.
+     */
+    public String requestTaskPlan(Task task) {
+        return requestTaskPlan(task, false);
+    }
+
+    /**
+     * As {@link #requestTaskPlan(Task)}; a {@code bulk} call takes its permit from the bulk
+     * rate limiter, which may wait longer, instead of the interactive one.
+     */
+    public String requestTaskPlan(Task task, boolean bulk) {
+        log.info("Generating AI task plan for task: {}", task.getId());
+        // Build the URL without query parameters
+        String apiUrl = geminiBaseUrl + completionsPath;
+
+        // Prepare request headers
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        // Use Authorization header with Bearer token format
+        headers.set("Authorization", "Bearer " + apiKey);
+
+        // Make API call
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(buildRequestBody(buildPrompt(task), false), headers);
+        acquirePermission(bulk ? BULK_RATE_LIMITER : INTERACTIVE_RATE_LIMITER);
+        Map<String, Object> response = restTemplate.postForObject(apiUrl, request, Map.class);
+        
+        if (response != null && response.containsKey("choices")) {
+            // Handle the choices as a List instead of an array
+            List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
+            if (!choices.isEmpty()) {
+                Map<String, Object> choice = choices.get(0);
+                Map<String, Object> messageResponse = (Map<String, Object>) choice.get("message");
+                return (String) messageResponse.get("content");
+            }
+        }
+        
+        // Log the actual response to help with debugging
+        log.info("API Response structure: {}", response);
+        
+        throw new IllegalStateException("Unable to generate AI task plan at this time.");
+    }
+
+    /**
+     * Plans several tasks with one model call. The tasks are listed under their ids and the model
+     * is asked for a JSON object mapping each id to its plan. Tasks the answer leaves out are
+     * missing from the result, so the caller can plan them on their own; an answer that is not a
+     * JSON object, e.g. one cut off at max_tokens, is thrown as a failure. Uses the bulk rate limiter.
+     */
+    public Map<Long, String> requestTaskPlans(List<Task> tasks) {
+        log.info("Generating AI task plans for {} tasks in one request", tasks.size());
+        String apiUrl = geminiBaseUrl + completionsPath;
+
+        StringBuilder prompt = new StringBuilder(
+            "You are an AI assistant for project management. Create a personalized task plan for each of the following tasks.\n" +
+            "For every task provide a recommended schedule with milestones, a breakdown into smaller steps, " +
+            "best practices for the type of task, and time management tips given its priority and deadline.\n" +
+            "Respond with a JSON object whose keys are the task ids and whose values are the plans as plain text.\n");
+        for (Task task : tasks) {
+            prompt.append("\nTask id: ").append(task.getId()).append('\n').append(describe(task));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer " + apiKey);
+        Map<String, Object> requestBody = buildRequestBody(prompt.toString(), false);
+        requestBody.put("max_tokens", Math.min(1024 * tasks.size(), MAX_PACKED_TOKENS));
+        requestBody.put("response_format", Map.of("type", "json_object"));
+
+        acquirePermission(BULK_RATE_LIMITER);
+        Map<String, Object> response = restTemplate.postForObject(apiUrl, new HttpEntity<>(requestBody, headers), Map.class);
+        if (response == null || !(response.get("choices") instanceof List<?> choices) || choices.isEmpty()) {
+            log.info("API Response structure: {}", response);
+            throw new IllegalStateException("Unable to generate AI task plans at this time.");
+        }
+        Map<String, Object> messageResponse = (Map<String, Object>) ((Map<String, Object>) choices.get(0)).get("message");
+        String content = (String) messageResponse.get("content");
+
+        JsonNode answer;
+        try {
+            answer = content != null ? objectMapper.readTree(content) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("AI API returned unreadable task plans: " + e.getOriginalMessage());
+        }
+        if (answer == null || !answer.isObject()) {
+            throw new IllegalStateException("AI API returned unreadable task plans");
+        }
+
+        Map<Long, String> plans = new HashMap<>();
+        for (Task task : tasks) {
+            JsonNode plan = answer.path(String.valueOf(task.getId()));
+            if (plan.isTextual() && !plan.asText().isBlank()) {
+                plans.put(task.getId(), plan.asText());
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Requests a streamed completion and passes each content delta to {@code onToken} as it
+     * arrives. Runs on the non-blocking HTTP client, so no thread waits for the model; the future
+     * completes with the whole plan, or fails on an error status or transport error. The stream
+     * is aborted when {@code onToken} throws, e.g. because the listener went away, when the
+     * returned future is cancelled, or when no data arrives within the idle timeout.
+     */
+    public CompletableFuture<String> streamTaskPlan(Task task, Consumer<String> onToken) {
+        log.info("Streaming AI task plan for task: {}", task.getId());
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(buildRequestBody(buildPrompt(task), true));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(geminiBaseUrl + completionsPath))
+                // Bounds the wait for the response headers; the stream itself may take longer
+                .timeout(streamTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        // Waits for a permit without holding a thread: the request is sent once the permit is due
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(INTERACTIVE_RATE_LIMITER);
+        long waitNanos = rateLimiter.reservePermission();
+        if (waitNanos < 0) {
+            return CompletableFuture.failedFuture(RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+        }
+        Executor sender = waitNanos > 0 ? CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS) : Runnable::run;
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletionStreamSubscriber subscriber = new CompletionStreamSubscriber(onToken, result);
+        AtomicReference<CompletableFuture<?>> exchange = new AtomicReference<>();
+        AtomicReference<ScheduledFuture<?>> watchdog = new AtomicReference<>();
+        CompletableFuture.runAsync(() -> { }, sender)
+                .thenCompose(ignored -> {
+                    if (result.isDone()) {
+                        throw new CancellationException("AI plan stream closed before it was sent");
+                    }
+                    subscriber.touch();
+                    watchdog.set(STREAM_WATCHDOG.scheduleWithFixedDelay(() -> {
+                        if (subscriber.idleNanos() >= streamIdleTimeout.toNanos()) {
+                            result.completeExceptionally(new TimeoutException(
+                                    "AI API sent nothing for " + streamIdleTimeout.toSeconds() + "s"));
+                        }
+                    }, watchdogPeriod(), watchdogPeriod(), TimeUnit.MILLISECONDS));
+                    if (result.isDone()) {
+                        watchdog.get().cancel(false);
+                    }
+                    CompletableFuture<HttpResponse<String>> response = aiHttpClient.sendAsync(request, info -> info.statusCode() / 100 == 2
+                            ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber, CompletionStreamSubscriber::plan, StandardCharsets.UTF_8, null)
+                            : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8));
+                    exchange.set(response);
+                    if (result.isCompletedExceptionally()) {
+                        response.cancel(true);
+                    }
+                    return response;
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException("AI API returned HTTP " + response.statusCode() + ": " + response.body());
+                    }
+                    return response.body();
+                })
+                .whenComplete((text, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    } else {
+                        result.complete(text);
+                    }
+                });
+        // Cancelling the returned future, or the idle timeout completing it, aborts the HTTP exchange
+        result.whenComplete((text, error) -> {
+            ScheduledFuture<?> timer = watchdog.get();
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (error != null) {
+                subscriber.cancel();
+                CompletableFuture<?> pending = exchange.get();
+                if (pending != null) {
+                    pending.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+
+    private long watchdogPeriod() {
+        return Math.max(100, streamIdleTimeout.toMillis() / 4);
+    }
+
+    private String buildPrompt(Task task) {
+        // Create prompt
+        return "You are an AI assistant for project management. Create a personalized task plan for the following task:\n\n" +
+            describe(task) + "\n" +
+            "Based on this information, provide a detailed plan including:\n" +
+            "1. A recommended time schedule with milestones\n" +
+            "2. Suggestions for breaking down the task into smaller steps\n" +
+            "3. Best practices for approaching this type of task\n" +
+            "4. Tips for managing time efficiently given the priority and deadline\n" +
+            "Format the response in a clear, concise way that's easy to follow.";
+    }
+
+    private String describe(Task task) {
+        // Format task details for prompt
+        String taskDescription = task.getDescription() != null ? task.getDescription() : "No description provided";
+        String priorityLevel = task.getPriority().toString();
+        String deadlineStr = task.getDeadline() != null ? 
+            task.getDeadline().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : 
+            "No deadline set";
+        
+        return String.format(
+            "Task: %s\n" +
+            "Description: %s\n" +
+            "Priority: %s\n" +
+            "Deadline: %s\n" +
+            "Estimated Hours: %s\n",
+            task.getTitle(),
+            taskDescription,
+            priorityLevel,
+            deadlineStr,
+            task.getEstimatedHours() != null ? task.getEstimatedHours() + " hours" : "Not specified"
+        );
+    }
+
+    private void acquirePermission(String rateLimiterName) {
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(rateLimiterName);
+        if (!rateLimiter.acquirePermission()) {
+            throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+        }
+    }
+
+    private Map<String, Object> buildRequestBody(String prompt, boolean stream) {
+        Map<String, Object> requestBody = new HashMap<>();
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt);
+        
+        requestBody.put("model", model);
+        requestBody.put("messages", new Object[]{message});
+        requestBody.put("max_tokens", 1024);
+        requestBody.put("temperature", 0.7);
+        if (stream) {
+            requestBody.put("stream", true);
+        }
+        return requestBody;
+    }
+
+    /**
+     * SHA-256 over everything the prompt is built from, plus the model and prompt version:
+     * equal hashes mean a new request would ask the same question.
+     */
+    public String contentHash(Task task) {
+        StringBuilder content = new StringBuilder();
+        for (Object part : new Object[]{PROMPT_VERSION, model, task.getTitle(), task.getDescription(),
+                task.getPriority(), task.getDeadline(), task.getEstimatedHours()}) {
+            String value = String.valueOf(part);
+            // Length-prefixed, so no two different tasks serialise to the same text
+            content.append(value.length()).append(':').append(value).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String getModel() {
+        return model;
+    }
+
     public String generateTaskPlan(TaskResponse taskResponse) {
         Task task = new Task();
         task.setId(taskResponse.getId());
@@ -124,4 +381,92 @@ public class AiTaskAssistantService {
         
         return generateTaskPlan(task);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Reads the server-sent events of a streamed chat completion line by line: every
+     * {@code data:} line carries a chunk whose {@code choices[0].delta.content} is the next piece
+     * of text, and {@code data: [DONE]} ends the stream.
+     */
+    private class CompletionStreamSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> onToken;
+        private final CompletableFuture<String> result;
+        private final StringBuilder plan = new StringBuilder();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private volatile long lastActivity = System.nanoTime();
+
+        CompletionStreamSubscriber(Consumer<String> onToken, CompletableFuture<String> result) {
+            this.onToken = onToken;
+            this.result = result;
+        }
+
+        String plan() {
+            return plan.toString();
+        }
+
+        void touch() {
+            lastActivity = System.nanoTime();
+        }
+
+        long idleNanos() {
+            return System.nanoTime() - lastActivity;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            touch();
+            if (cancelled || !line.startsWith("data:")) {
+                return;
+            }
+            String data = line.substring(5).trim();
+            if (data.isEmpty() || data.equals("[DONE]")) {
+                return;
+            }
+            String content;
+            try {
+                content = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unparseable completion chunk: {}", e.getMessage());
+                return;
+            }
+            if (content.isEmpty()) {
+                return;
+            }
+            plan.append(content);
+            try {
+                onToken.accept(content);
+            } catch (RuntimeException e) {
+                log.info("Stopping AI plan stream: {}", e.getMessage());
+                cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Reported through the future returned by sendAsync
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
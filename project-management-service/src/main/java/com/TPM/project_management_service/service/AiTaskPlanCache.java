@@ -0,0 +1,87 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.AiTaskPlan;
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.repository.AiTaskPlanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps the last AI plan of every task in the ai_task_plans table, so viewing a plan again costs
+ * a primary-key lookup instead of a model call. A stored plan is reused while the task's content
+ * hash (title, description, priority, deadline, estimated hours, model and prompt version) is
+ * unchanged and it is younger than {@code application.ai.plan-ttl}; otherwise, or when the caller
+ * asks to regenerate, the model is called again and the row replaced. Failed generations are
+ * never stored.
+ */
+@Service
+@Slf4j
+public class AiTaskPlanCache {
+    private final AiTaskPlanRepository aiTaskPlanRepository;
+    private final AiTaskAssistantService aiTaskAssistantService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.ai.plan-ttl:30d}")
+    private Duration planTtl;
+
+    public AiTaskPlanCache(AiTaskPlanRepository aiTaskPlanRepository, AiTaskAssistantService aiTaskAssistantService,
+                           PlatformTransactionManager transactionManager) {
+        this.aiTaskPlanRepository = aiTaskPlanRepository;
+        this.aiTaskAssistantService = aiTaskAssistantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public record Plan(String plan, boolean cached, LocalDateTime generatedAt) {
+    }
+
+    /**
+     * Returns the stored plan if still valid, otherwise generates and stores a new one.
+     * Generation failures are thrown.
+     */
+    public Plan getOrGenerate(Task task, boolean regenerate) {
+        String contentHash = aiTaskAssistantService.contentHash(task);
+        if (!regenerate) {
+            Optional<AiTaskPlan> stored = findFresh(task.getId(), contentHash);
+            if (stored.isPresent()) {
+                log.info("Serving cached AI task plan for task {}", task.getId());
+                return new Plan(stored.get().getPlan(), true, stored.get().getGeneratedAt());
+            }
+        }
+
+        String plan = aiTaskAssistantService.requestTaskPlan(task);
+        LocalDateTime generatedAt = LocalDateTime.now();
+        store(task.getId(), contentHash, plan, generatedAt);
+        return new Plan(plan, false, generatedAt);
+    }
+
+    public Optional<AiTaskPlan> findFresh(Long taskId, String contentHash) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(planTtl);
+        return aiTaskPlanRepository.findById(taskId)
+                .filter(stored -> stored.getContentHash().equals(contentHash))
+                .filter(stored -> stored.getGeneratedAt().isAfter(cutoff));
+    }
+
+    public void store(Long taskId, String contentHash, String plan, LocalDateTime generatedAt) {
+        transactionTemplate.executeWithoutResult(status ->
+                aiTaskPlanRepository.upsert(taskId, contentHash, aiTaskAssistantService.getModel(), plan, generatedAt));
+    }
+
+    @Scheduled(cron = "${application.ai.plan-sweep-cron:0 45 3 * * *}")
+    public void sweep() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    aiTaskPlanRepository.deleteExpiredOrOrphaned(LocalDateTime.now().minus(planTtl)));
+            log.info("Removed {} expired or orphaned AI task plans", deleted);
+        } catch (Exception e) {
+            log.error("Error removing expired AI task plans: {}", e.getMessage(), e);
+        }
+    }
+}
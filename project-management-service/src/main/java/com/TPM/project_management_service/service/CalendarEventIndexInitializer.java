@@ -0,0 +1,109 @@
+package com.TPM.project_management_service.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Creates the GiST index behind the calendar overlap queries. Schema auto-update cannot express
+ * expression indexes, so it is created here once the tables exist. With the btree_gist extension
+ * the index leads with calendar_id; without it (no privilege to create extensions) it falls back
+ * to the time range alone, which still serves the overlap test.
+ * <p>
+ * The indexed expression must stay identical to the one in CalendarEventRepository.findOverlapping.
+ * <p>
+ * The unique deadline index is required: every deadline sync upserts against it. If it cannot be
+ * created, startup fails instead of running with a sync that fails on every batch. Existing
+ * duplicates are never deleted; they are converted to OTHER events in the same transaction.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class CalendarEventIndexInitializer {
+    private static final String INDEX = "idx_calendar_events_period";
+    private static final String DEADLINE_INDEX = "uq_calendar_events_task_deadline";
+    private static final String PERIOD = "tsrange(start_time, GREATEST(COALESCE(end_time, start_time), start_time), '[]')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CalendarMonthCache calendarMonthCache;
+
+    private record DetachedEvent(Long id, Long taskId, Long calendarId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    public CalendarEventIndexInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         CalendarMonthCache calendarMonthCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.calendarMonthCache = calendarMonthCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        createDeadlineIndex();
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, INDEX))) {
+                createPeriodIndex();
+            }
+            // Series are looked up by calendar and first start, then bounded by recurrence_until
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_calendar_events_series ON calendar_events " +
+                    "(calendar_id, start_time) WHERE recurrence_rule IS NOT NULL");
+            // Free/busy reads the events each member created, on any calendar
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_calendar_events_creator ON calendar_events (created_by, start_time)");
+        } catch (Exception e) {
+            log.error("Error creating calendar event indexes: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createDeadlineIndex() {
+        try {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, DEADLINE_INDEX))) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                // One synced deadline event per task. Extra ones (e.g. created by hand) keep their content
+                // and task link but become OTHER events, which the index does not cover
+                List<DetachedEvent> detached = jdbcTemplate.query("UPDATE calendar_events a SET event_type = 'OTHER', " +
+                        "updated_at = LOCALTIMESTAMP FROM calendar_events b " +
+                        "WHERE a.event_type = 'TASK_DEADLINE' AND b.event_type = 'TASK_DEADLINE' " +
+                        "AND a.task_id = b.task_id AND a.id > b.id " +
+                        "RETURNING a.id, a.task_id, a.calendar_id, a.start_time, a.end_time",
+                        (rs, rowNum) -> new DetachedEvent(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                                rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDateTime.class)));
+                if (!detached.isEmpty()) {
+                    Long[] calendarIds = detached.stream().map(DetachedEvent::calendarId).distinct().toArray(Long[]::new);
+                    // Feed ETags change with the version, so subscribers pick up the converted events
+                    jdbcTemplate.update("UPDATE project_calendars SET content_version = COALESCE(content_version, 0) + 1, " +
+                            "content_updated_at = LOCALTIMESTAMP WHERE id = ANY(CAST(? AS bigint[]))", (Object) calendarIds);
+                    detached.forEach(event -> calendarMonthCache.invalidate(event.calendarId(), event.startTime(),
+                            event.endTime() != null ? event.endTime() : event.startTime()));
+                    log.warn("Converted {} duplicate deadline events to OTHER before creating {}: {}",
+                            detached.size(), DEADLINE_INDEX, detached);
+                }
+                jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + DEADLINE_INDEX + " ON calendar_events (task_id) " +
+                        "WHERE event_type = 'TASK_DEADLINE' AND task_id IS NOT NULL");
+            });
+            log.info("Created index {} on calendar_events", DEADLINE_INDEX);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create " + DEADLINE_INDEX + ", which deadline event sync requires", e);
+        }
+    }
+
+    private void createPeriodIndex() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX + " ON calendar_events USING gist (calendar_id, " + PERIOD + ")");
+        } catch (Exception e) {
+            log.warn("btree_gist unavailable ({}), indexing calendar event periods without calendar_id", e.getMessage());
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX + " ON calendar_events USING gist (" + PERIOD + ")");
+        }
+        log.info("Created index {} on calendar_events", INDEX);
+    }
+}
@@ -0,0 +1,246 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.CalendarFeedResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectCalendar;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.model.ProjectRole;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.CalendarEventView;
+import com.TPM.project_management_service.repository.ProjectCalendarRepository;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * iCalendar subscription feeds. Calendar clients poll without credentials, so each calendar has
+ * a secret feed token. A feed is rendered once per calendar version (bumped on every event
+ * change) and day, kept in memory, and answered with 304 while the client's ETag or
+ * Last-Modified date still matches; a poll therefore costs one primary-key lookup.
+ * <p>
+ * The feed holds single events from {@value #FEED_PAST_DAYS} days back to {@value #FEED_FUTURE_DAYS}
+ * days ahead; recurring series are written once with their RRULE and EXDATEs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarFeedService {
+    private static final int FEED_PAST_DAYS = 90;
+    private static final int FEED_FUTURE_DAYS = 400;
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectCalendarRepository projectCalendarRepository;
+    private final CalendarEventRepository calendarEventRepository;
+    private final CalendarOccurrenceService calendarOccurrenceService;
+    private final ProjectCalendarProvisioner projectCalendarProvisioner;
+    private final CurrentUserService currentUserService;
+    // Keyed by project id, so a purge can drop the feed without looking up the calendar
+    private final Map<Long, RenderedFeed> renderedFeeds = new ConcurrentHashMap<>();
+
+    public record FeedState(Long projectId, Long calendarId, String name, String etag, LocalDateTime lastModified) {
+    }
+
+    private record RenderedFeed(String etag, byte[] body) {
+    }
+
+    /**
+     * Returns the project's feed token, creating it on first use. Rotating invalidates every
+     * existing subscription and is limited to the project owner and admins.
+     */
+    @Transactional
+    public CalendarFeedResponse getFeedToken(Long projectId, boolean rotate, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting calendar feed token for project {} by user {}", projectId, userProfile.getUser().getId());
+
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+            // Check if user is a member of the project
+            Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+            boolean isOwner = project.getOwnerId().equals(userProfile.getUser().getId());
+            if (memberOpt.isEmpty() && !isOwner) {
+                throw new UnauthorizedAccessException("User is not a member of this project");
+            }
+            if (rotate && !isOwner && memberOpt.get().getRole() != ProjectRole.ADMIN) {
+                throw new UnauthorizedAccessException("Only project owner or admin can rotate the feed token");
+            }
+
+            ProjectCalendar calendar = projectCalendarRepository.findById(projectCalendarProvisioner.calendarIdFor(project))
+                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
+            if (calendar.getFeedToken() == null || rotate) {
+                byte[] bytes = new byte[32];
+                RANDOM.nextBytes(bytes);
+                calendar.setFeedToken(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+                calendar = projectCalendarRepository.save(calendar);
+                log.info("Issued new feed token for calendar {}", calendar.getId());
+            }
+
+            return new CalendarFeedResponse(projectId, calendar.getFeedToken(),
+                    "/api/v1/projects/" + projectId + "/calendar/feed.ics?token=" + calendar.getFeedToken());
+        } catch (Exception e) {
+            log.error("Error getting calendar feed token for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Version of the project's feed for a conditional GET, or empty when the token does not match.
+     */
+    public Optional<FeedState> resolveFeed(Long projectId, String feedToken) {
+        List<Object[]> rows = projectCalendarRepository.findFeedStateByProjectId(projectId);
+        if (rows.isEmpty() || feedToken == null) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        String expected = (String) row[2];
+        // Constant-time comparison, so the token cannot be guessed byte by byte
+        if (expected == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                feedToken.getBytes(StandardCharsets.UTF_8))) {
+            return Optional.empty();
+        }
+        Long calendarId = (Long) row[0];
+        long version = row[3] != null ? (Long) row[3] : 0L;
+        LocalDateTime lastModified = row[4] != null ? (LocalDateTime) row[4] : (LocalDateTime) row[5];
+        // The date is part of the version because the feed window moves forward every day, so the
+        // feed is also considered modified at the start of each day for If-Modified-Since clients
+        LocalDate today = LocalDate.now();
+        if (lastModified.isBefore(today.atStartOfDay())) {
+            lastModified = today.atStartOfDay();
+        }
+        String etag = "\"" + calendarId + "-" + version + "-" + today.format(DATE) + "\"";
+        return Optional.of(new FeedState(projectId, calendarId, (String) row[1], etag, lastModified));
+    }
+
+    /**
+     * Drops the rendered feed of a project whose events are being purged.
+     */
+    public void forget(Long projectId) {
+        renderedFeeds.remove(projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public byte[] renderFeed(FeedState state) {
+        RenderedFeed cached = renderedFeeds.get(state.projectId());
+        if (cached != null && cached.etag().equals(state.etag())) {
+            return cached.body();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minusDays(FEED_PAST_DAYS);
+        LocalDateTime to = now.plusDays(FEED_FUTURE_DAYS);
+        List<CalendarEventView> events = calendarEventRepository.findOverlapping(state.calendarId(), from, to);
+        List<CalendarEventView> series = calendarEventRepository.findSeriesOverlapping(state.calendarId(), from, to);
+
+        StringBuilder ics = new StringBuilder();
+        line(ics, "BEGIN:VCALENDAR");
+        line(ics, "VERSION:2.0");
+        line(ics, "PRODID:-//TPM//Project Management Service//EN");
+        line(ics, "CALSCALE:GREGORIAN");
+        line(ics, "METHOD:PUBLISH");
+        line(ics, "X-WR-CALNAME:" + escape(state.name()));
+        for (CalendarEventView event : events) {
+            writeEvent(ics, event);
+        }
+        for (CalendarEventView event : series) {
+            writeEvent(ics, event);
+        }
+        line(ics, "END:VCALENDAR");
+
+        byte[] body = ics.toString().getBytes(StandardCharsets.UTF_8);
+        renderedFeeds.put(state.projectId(), new RenderedFeed(state.etag(), body));
+        log.info("Rendered feed for calendar {} with {} events and {} series", state.calendarId(), events.size(), series.size());
+        return body;
+    }
+
+    private void writeEvent(StringBuilder ics, CalendarEventView event) {
+        line(ics, "BEGIN:VEVENT");
+        line(ics, "UID:calendar-event-" + event.getId() + "@tpm");
+        LocalDateTime stamp = event.getUpdatedAt() != null ? event.getUpdatedAt() : event.getCreatedAt();
+        line(ics, "DTSTAMP:" + stamp.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_DATE_TIME));
+        if (Boolean.TRUE.equals(event.getAllDay())) {
+            LocalDate startDate = event.getStartTime().toLocalDate();
+            LocalDate endDate = event.getEndTime() != null && event.getEndTime().toLocalDate().isAfter(startDate)
+                    ? event.getEndTime().toLocalDate() : startDate;
+            line(ics, "DTSTART;VALUE=DATE:" + startDate.format(DATE));
+            // DTEND of an all-day event is exclusive
+            line(ics, "DTEND;VALUE=DATE:" + endDate.plusDays(1).format(DATE));
+        } else {
+            // Floating times: events are stored without a zone and shown in the subscriber's local time
+            line(ics, "DTSTART:" + event.getStartTime().format(LOCAL_DATE_TIME));
+            if (event.getEndTime() != null) {
+                line(ics, "DTEND:" + event.getEndTime().format(LOCAL_DATE_TIME));
+            }
+        }
+        if (event.getRecurrenceRule() != null) {
+            String rule = event.getRecurrenceRule();
+            line(ics, rule.regionMatches(true, 0, "RRULE:", 0, 6) ? rule : "RRULE:" + rule);
+            for (LocalDateTime exception : calendarOccurrenceService.exceptionsList(event.getRecurrenceExceptions())) {
+                line(ics, "EXDATE:" + exception.format(LOCAL_DATE_TIME));
+            }
+        }
+        line(ics, "SUMMARY:" + escape(event.getTitle()));
+        if (event.getDescription() != null) {
+            line(ics, "DESCRIPTION:" + escape(event.getDescription()));
+        }
+        if (event.getLocation() != null) {
+            line(ics, "LOCATION:" + escape(event.getLocation()));
+        }
+        line(ics, "CATEGORIES:" + event.getEventType().name());
+        line(ics, "END:VEVENT");
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    /**
+     * Appends a content line, folded to at most 75 octets per physical line as RFC 5545 requires.
+     */
+    private static void line(StringBuilder ics, String content) {
+        int octets = 0;
+        int limit = 75;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > limit) {
+                ics.append("\r\n ");
+                octets = 0;
+                // Continuation lines start with a space, which counts towards their length
+                limit = 74;
+            }
+            ics.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        ics.append("\r\n");
+    }
+}
@@ -0,0 +1,125 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.CalendarEventResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of each calendar's events per month, as returned by the events endpoint
+ * (single events plus expanded series occurrences overlapping the month).
+ * <p>
+ * Writes evict only the months the changed event covered before and after the change, once their
+ * transaction commits; an open-ended series evicts every cached month from its start on. The cache
+ * holds at most {@code application.calendar.month-cache-max-entries} months and drops the least
+ * recently read first. Nothing is persisted: after a restart months are rebuilt from the database
+ * on first read. Hits and misses are counted in {@code calendar.month.cache.requests}.
+ * <p>
+ * Like ActiveTimerRegistry this assumes a single instance; other instances do not see evictions.
+ */
+@Service
+@Slf4j
+public class CalendarMonthCache {
+    private final Map<MonthKey, List<CalendarEventResponse>> months;
+    // Bumped on every eviction, so a read that raced a write does not store what it loaded
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    private record MonthKey(Long calendarId, YearMonth month) {
+    }
+
+    public CalendarMonthCache(MeterRegistry meterRegistry,
+                              @Value("${application.calendar.month-cache-max-entries:2000}") int maxEntries) {
+        this.months = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MonthKey, List<CalendarEventResponse>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("calendar.month.cache.requests").tag("result", "hit")
+                .description("Calendar month reads served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("calendar.month.cache.requests").tag("result", "miss")
+                .description("Calendar month reads loaded from the database").register(meterRegistry);
+        Gauge.builder("calendar.month.cache.size", this, CalendarMonthCache::size)
+                .description("Calendar months currently cached").register(meterRegistry);
+    }
+
+    /**
+     * Returns the calendar's events for the month, loading and caching them on a miss.
+     * The returned list is shared and must not be modified.
+     */
+    public List<CalendarEventResponse> get(Long calendarId, YearMonth month, Supplier<List<CalendarEventResponse>> loader) {
+        MonthKey key = new MonthKey(calendarId, month);
+        long generation;
+        synchronized (months) {
+            List<CalendarEventResponse> cached = months.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            generation = generation(calendarId).get();
+        }
+        misses.increment();
+        List<CalendarEventResponse> loaded = List.copyOf(loader.get());
+        synchronized (months) {
+            if (generation(calendarId).get() == generation) {
+                months.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the calendar's months from {@code from} through {@code to}, or through the last cached
+     * month when {@code to} is null, after the current transaction commits.
+     */
+    public void invalidate(Long calendarId, LocalDateTime from, LocalDateTime to) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(calendarId, from, to);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(calendarId, from, to);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (months) {
+            return months.size();
+        }
+    }
+
+    private void evict(Long calendarId, LocalDateTime from, LocalDateTime to) {
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = to != null ? YearMonth.from(to) : null;
+        synchronized (months) {
+            generation(calendarId).incrementAndGet();
+            months.keySet().removeIf(key -> key.calendarId().equals(calendarId)
+                    && !key.month().isBefore(first)
+                    && (last == null || !key.month().isAfter(last)));
+        }
+        log.debug("Evicted cached months {} to {} of calendar {}", first, last != null ? last : "end", calendarId);
+    }
+
+    private AtomicLong generation(Long calendarId) {
+        return generations.computeIfAbsent(calendarId, id -> new AtomicLong());
+    }
+}
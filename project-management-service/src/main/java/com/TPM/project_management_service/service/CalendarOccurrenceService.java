@@ -0,0 +1,98 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.CalendarEvent;
+import com.TPM.project_management_service.model.RecurrenceRule;
+import com.TPM.project_management_service.repository.CalendarEventView;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores recurring events as one row per series and expands them into occurrences only for
+ * the window being read.
+ */
+@Service
+public class CalendarOccurrenceService {
+    // Upper bound per series and request, so a daily series over a huge window stays cheap
+    private static final int MAX_OCCURRENCES_PER_SERIES = 1000;
+
+    public record Occurrence(CalendarEventView event, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    /**
+     * Validates and stores a recurrence rule and its exceptions on the event. A null rule
+     * leaves the event's recurrence untouched, an empty one removes it.
+     */
+    public void applyRecurrence(CalendarEvent event, String rule, List<LocalDateTime> exceptions) {
+        if (rule != null) {
+            if (rule.isBlank()) {
+                event.setRecurrenceRule(null);
+                event.setRecurrenceUntil(null);
+                event.setRecurrenceExceptions(null);
+                return;
+            }
+            event.setRecurrenceRule(rule.trim());
+        }
+        if (event.getRecurrenceRule() == null) {
+            if (exceptions != null && !exceptions.isEmpty()) {
+                throw new IllegalArgumentException("Recurrence exceptions require a recurrence rule");
+            }
+            return;
+        }
+        if (exceptions != null) {
+            event.setRecurrenceExceptions(exceptions.isEmpty() ? null : exceptions.stream()
+                    .distinct()
+                    .sorted()
+                    .map(LocalDateTime::toString)
+                    .collect(Collectors.joining(",")));
+        }
+        // Parsing here rejects unsupported rules before they are stored
+        LocalDateTime lastStart = RecurrenceRule.parse(event.getRecurrenceRule()).lastOccurrence(event.getStartTime());
+        Duration length = lengthOf(event.getStartTime(), event.getEndTime());
+        event.setRecurrenceUntil(lastStart == null || length == null ? lastStart : lastStart.plus(length));
+    }
+
+    /**
+     * Occurrences of the given series that overlap [from, to), ordered by start. An occurrence
+     * without an end time overlaps when its start falls in the window.
+     */
+    public List<Occurrence> expand(List<CalendarEventView> series, LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (CalendarEventView event : series) {
+            Duration length = lengthOf(event.getStartTime(), event.getEndTime());
+            // Occurrences that started up to one length before the window are still running in it
+            LocalDateTime firstStart = length != null ? from.minus(length) : from;
+            for (LocalDateTime start : RecurrenceRule.parse(event.getRecurrenceRule())
+                    .occurrencesBetween(event.getStartTime(), firstStart, to,
+                            Set.copyOf(exceptionsList(event.getRecurrenceExceptions())), MAX_OCCURRENCES_PER_SERIES)) {
+                LocalDateTime end = length != null ? start.plus(length) : null;
+                boolean overlaps = start.isBefore(to) && (end != null ? end.isAfter(from) : !start.isBefore(from));
+                if (overlaps) {
+                    occurrences.add(new Occurrence(event, start, end));
+                }
+            }
+        }
+        occurrences.sort(Comparator.comparing(Occurrence::startTime));
+        return occurrences;
+    }
+
+    public List<LocalDateTime> exceptionsList(String recurrenceExceptions) {
+        if (recurrenceExceptions == null || recurrenceExceptions.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(recurrenceExceptions.split(","))
+                .map(LocalDateTime::parse)
+                .collect(Collectors.toList());
+    }
+
+    private static Duration lengthOf(LocalDateTime start, LocalDateTime end) {
+        return end != null && end.isAfter(start) ? Duration.between(start, end) : null;
+    }
+}
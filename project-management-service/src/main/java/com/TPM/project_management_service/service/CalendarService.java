@@ -1,25 +1,33 @@
 package com.TPM.project_management_service.service;
 
-import com.TPM.project_management_service.client.UserServiceClient;
 import com.TPM.project_management_service.dto.CalendarEventRequest;
 import com.TPM.project_management_service.dto.CalendarEventResponse;
+import com.TPM.project_management_service.dto.ProjectCalendarResponse;
 import com.TPM.project_management_service.exception.ProjectNotFoundException;
 import com.TPM.project_management_service.exception.TaskNotFoundException;
 import com.TPM.project_management_service.exception.UnauthorizedAccessException;
 import com.TPM.project_management_service.model.*;
 import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.CalendarEventView;
 import com.TPM.project_management_service.repository.ProjectCalendarRepository;
 import com.TPM.project_management_service.repository.ProjectMemberRepository;
 import com.TPM.project_management_service.repository.ProjectRepository;
 import com.TPM.project_management_service.repository.TaskRepository;
-import com.TPM.project_management_service.security.JwtValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -32,28 +40,22 @@ public class CalendarService {
     private final ProjectCalendarRepository projectCalendarRepository;
     private final CalendarEventRepository calendarEventRepository;
     private final TaskRepository taskRepository;
-    private final UserServiceClient userServiceClient;
-    private final JwtValidator jwtValidator;
+    private final CurrentUserService currentUserService;
+    private final CalendarOccurrenceService calendarOccurrenceService;
+    private final ProjectCalendarProvisioner projectCalendarProvisioner;
+    private final CalendarMonthCache calendarMonthCache;
+
+    // Longest window a single events request may span; a six-week month view fits comfortably
+    @Value("${application.calendar.max-window:100d}")
+    private Duration maxWindow;
 
     @Transactional
-    public ProjectCalendar createProjectCalendar(Long projectId, String name, String description, String token) {
+    public ProjectCalendarResponse createProjectCalendar(Long projectId, String name, String description, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Creating calendar for project {} by user {}", projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -66,21 +68,23 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("Only project owner or admin can create a calendar");
             }
             
-            // Check if calendar already exists
-            Optional<ProjectCalendar> existingCalendar = projectCalendarRepository.findByProjectId(projectId);
-            if (existingCalendar.isPresent()) {
-                throw new IllegalArgumentException("Calendar already exists for this project");
-            }
-            
-            ProjectCalendar calendar = new ProjectCalendar();
-            calendar.setProject(project);
+            // Every project already has a calendar; creating one again just names it
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
+            ProjectCalendar calendar = projectCalendarRepository.findById(calendarId)
+                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
+            boolean renamed = !Objects.equals(calendar.getName(), name) || !Objects.equals(calendar.getDescription(), description);
             calendar.setName(name);
             calendar.setDescription(description);
             
-            calendar = projectCalendarRepository.save(calendar);
-            log.info("Calendar created successfully with id: {}", calendar.getId());
+            projectCalendarRepository.save(calendar);
+            if (renamed) {
+                // Feed pollers compare the version, so a renamed calendar must get a new one
+                projectCalendarRepository.markContentChanged(calendarId);
+            }
+            log.info("Calendar saved successfully with id: {}", calendarId);
             
-            return calendar;
+            return projectCalendarRepository.findResponseById(calendarId)
+                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
         } catch (Exception e) {
             log.error("Error creating calendar for project {}: {}", projectId, e.getMessage(), e);
             throw e;
@@ -90,22 +94,10 @@ public class CalendarService {
     @Transactional
     public CalendarEventResponse addEvent(Long projectId, CalendarEventRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Adding event to project calendar {} by user {}", projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -115,18 +107,10 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("User is not a member of this project");
             }
             
-            // Get or create calendar
-            ProjectCalendar calendar = projectCalendarRepository.findByProjectId(projectId)
-                    .orElseGet(() -> {
-                        ProjectCalendar newCalendar = new ProjectCalendar();
-                        newCalendar.setProject(project);
-                        newCalendar.setName(project.getName() + " Calendar");
-                        newCalendar.setDescription("Calendar for " + project.getName());
-                        return projectCalendarRepository.save(newCalendar);
-                    });
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
             
             CalendarEvent event = new CalendarEvent();
-            event.setCalendar(calendar);
+            event.setCalendar(projectCalendarRepository.getReferenceById(calendarId));
             event.setTitle(request.getTitle());
             event.setDescription(request.getDescription());
             event.setEventType(request.getEventType());
@@ -135,6 +119,9 @@ public class CalendarService {
             event.setAllDay(request.getAllDay() != null ? request.getAllDay() : false);
             event.setLocation(request.getLocation());
             event.setCreatedBy(userProfile.getUser().getId());
+            validateTimes(event);
+            validateNotSyncedDeadline(event, request);
+            calendarOccurrenceService.applyRecurrence(event, request.getRecurrenceRule(), request.getRecurrenceExceptions());
             
             // Link to task if specified
             if (request.getTaskId() != null) {
@@ -150,6 +137,8 @@ public class CalendarService {
             }
             
             event = calendarEventRepository.save(event);
+            projectCalendarRepository.markContentChanged(calendarId);
+            invalidateMonths(event);
             log.info("Event added successfully with id: {}", event.getId());
             
             return mapToCalendarEventResponse(event);
@@ -161,22 +150,19 @@ public class CalendarService {
     
     public List<CalendarEventResponse> getCalendarEvents(Long projectId, LocalDateTime start, LocalDateTime end, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting calendar events for project {} by user {}", projectId, userProfile.getUser().getId());
             
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("start and end are required");
+            }
+            if (!end.isAfter(start)) {
+                throw new IllegalArgumentException("end must be after start");
+            }
+            if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+                throw new IllegalArgumentException("The requested window may span at most " + maxWindow.toDays() + " days");
+            }
+            
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -186,20 +172,23 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("User is not a member of this project");
             }
             
-            // Get calendar
-            ProjectCalendar calendar = projectCalendarRepository.findByProjectId(projectId)
-                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
-            
-            List<CalendarEvent> events;
-            if (start != null && end != null) {
-                events = calendarEventRepository.findByCalendarIdAndStartTimeBetween(calendar.getId(), start, end);
-            } else {
-                events = calendarEventRepository.findByCalendarId(calendar.getId());
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
+            
+            // The window is served from the cached months it touches; an event spanning
+            // several months is listed in each of them, so occurrences are de-duplicated
+            Map<String, CalendarEventResponse> events = new LinkedHashMap<>();
+            YearMonth lastMonth = YearMonth.from(end.minusNanos(1));
+            for (YearMonth month = YearMonth.from(start); !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+                YearMonth current = month;
+                for (CalendarEventResponse event : calendarMonthCache.get(calendarId, current, () -> loadMonth(calendarId, current))) {
+                    if (overlaps(event, start, end)) {
+                        events.putIfAbsent(event.getId() + "@" + event.getStartTime(), event);
+                    }
+                }
             }
-            
-            return events.stream()
-                    .map(this::mapToCalendarEventResponse)
-                    .collect(Collectors.toList());
+            List<CalendarEventResponse> result = new ArrayList<>(events.values());
+            result.sort(Comparator.comparing(CalendarEventResponse::getStartTime));
+            return result;
         } catch (Exception e) {
             log.error("Error getting calendar events for project {}: {}", projectId, e.getMessage(), e);
             throw e;
@@ -209,22 +198,10 @@ public class CalendarService {
     @Transactional
     public CalendarEventResponse updateEvent(Long projectId, Long eventId, CalendarEventRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Updating calendar event {} for project {} by user {}", eventId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -234,17 +211,16 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("User is not a member of this project");
             }
             
-            // Get calendar
-            ProjectCalendar calendar = projectCalendarRepository.findByProjectId(projectId)
-                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
             
             CalendarEvent event = calendarEventRepository.findById(eventId)
                     .orElseThrow(() -> new IllegalArgumentException("Event not found with id: " + eventId));
             
             // Verify event belongs to the project calendar
-            if (!event.getCalendar().getId().equals(calendar.getId())) {
+            if (!event.getCalendar().getId().equals(calendarId)) {
                 throw new IllegalArgumentException("Event does not belong to this project calendar");
             }
+            rejectSyncedDeadline(event);
             
             // Check if user is the creator, owner, or admin
             boolean isCreator = event.getCreatedBy().equals(userProfile.getUser().getId());
@@ -255,6 +231,9 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("User is not authorized to update this event");
             }
             
+            // Months the event covers before the change are evicted as well as those it covers after
+            invalidateMonths(event);
+            
             // Update event fields
             if (request.getTitle() != null) {
                 event.setTitle(request.getTitle());
@@ -265,6 +244,9 @@ public class CalendarService {
             }
             
             if (request.getEventType() != null) {
+                if (request.getEventType() == CalendarEventType.TASK_DEADLINE && event.getEventType() != CalendarEventType.TASK_DEADLINE) {
+                    validateNotSyncedDeadline(event, request);
+                }
                 event.setEventType(request.getEventType());
             }
             
@@ -300,8 +282,15 @@ public class CalendarService {
                 event.setTask(null);
             }
             
+            validateTimes(event);
+            
+            // Re-applied after the time fields so the end of the series follows a moved start
+            calendarOccurrenceService.applyRecurrence(event, request.getRecurrenceRule(), request.getRecurrenceExceptions());
+            
             event.setUpdatedAt(LocalDateTime.now());
             event = calendarEventRepository.save(event);
+            projectCalendarRepository.markContentChanged(calendarId);
+            invalidateMonths(event);
             log.info("Event updated successfully with id: {}", event.getId());
             
             return mapToCalendarEventResponse(event);
@@ -314,22 +303,10 @@ public class CalendarService {
     @Transactional
     public void deleteEvent(Long projectId, Long eventId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Deleting calendar event {} for project {} by user {}", eventId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -339,17 +316,16 @@ public class CalendarService {
                 throw new UnauthorizedAccessException("User is not a member of this project");
             }
             
-            // Get calendar
-            ProjectCalendar calendar = projectCalendarRepository.findByProjectId(projectId)
-                    .orElseThrow(() -> new IllegalArgumentException("Calendar not found for this project"));
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
             
             CalendarEvent event = calendarEventRepository.findById(eventId)
                     .orElseThrow(() -> new IllegalArgumentException("Event not found with id: " + eventId));
             
             // Verify event belongs to the project calendar
-            if (!event.getCalendar().getId().equals(calendar.getId())) {
+            if (!event.getCalendar().getId().equals(calendarId)) {
                 throw new IllegalArgumentException("Event does not belong to this project calendar");
             }
+            rejectSyncedDeadline(event);
             
             // Check if user is the creator, owner, or admin
             boolean isCreator = event.getCreatedBy().equals(userProfile.getUser().getId());
@@ -361,6 +337,8 @@ public class CalendarService {
             }
             
             calendarEventRepository.delete(event);
+            projectCalendarRepository.markContentChanged(calendarId);
+            invalidateMonths(event);
             log.info("Event deleted successfully with id: {}", event.getId());
         } catch (Exception e) {
             log.error("Error deleting calendar event {}: {}", eventId, e.getMessage(), e);
@@ -368,6 +346,44 @@ public class CalendarService {
         }
     }
     
+    /**
+     * All events of the calendar overlapping the month: single events plus series occurrences.
+     */
+    private List<CalendarEventResponse> loadMonth(Long calendarId, YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        // Read as flat rows without touching the task association
+        List<CalendarEventResponse> events = calendarEventRepository.findOverlapping(calendarId, from, to).stream()
+                .map(this::mapToCalendarEventResponse)
+                .collect(Collectors.toList());
+        // Series are read once each and expanded only inside the month
+        List<CalendarEventView> series = calendarEventRepository.findSeriesOverlapping(calendarId, from, to);
+        calendarOccurrenceService.expand(series, from, to).stream()
+                .map(this::mapOccurrenceToCalendarEventResponse)
+                .forEach(events::add);
+        events.sort(Comparator.comparing(CalendarEventResponse::getStartTime));
+        return events;
+    }
+    
+    // Same rule as findOverlapping: an event without an end is an instant at its start
+    private boolean overlaps(CalendarEventResponse event, LocalDateTime start, LocalDateTime end) {
+        if (!event.getStartTime().isBefore(end)) {
+            return false;
+        }
+        return event.getEndTime() != null ? event.getEndTime().isAfter(start) : !event.getStartTime().isBefore(start);
+    }
+    
+    private void invalidateMonths(CalendarEvent event) {
+        Long calendarId = event.getCalendar().getId();
+        if (event.getRecurrenceRule() != null) {
+            // Null until means the series never ends
+            calendarMonthCache.invalidate(calendarId, event.getStartTime(), event.getRecurrenceUntil());
+        } else {
+            calendarMonthCache.invalidate(calendarId, event.getStartTime(),
+                    event.getEndTime() != null ? event.getEndTime() : event.getStartTime());
+        }
+    }
+    
     private CalendarEventResponse mapToCalendarEventResponse(CalendarEvent event) {
         CalendarEventResponse response = new CalendarEventResponse();
         response.setId(event.getId());
@@ -387,6 +403,68 @@ public class CalendarService {
             response.setTaskId(event.getTask().getId());
         }
         
+        if (event.getRecurrenceRule() != null) {
+            response.setRecurrenceRule(event.getRecurrenceRule());
+            response.setRecurrenceExceptions(calendarOccurrenceService.exceptionsList(event.getRecurrenceExceptions()));
+        }
+        
+        return response;
+    }
+    
+    private CalendarEventResponse mapToCalendarEventResponse(CalendarEventView event) {
+        CalendarEventResponse response = new CalendarEventResponse();
+        response.setId(event.getId());
+        response.setCalendarId(event.getCalendarId());
+        response.setTitle(event.getTitle());
+        response.setDescription(event.getDescription());
+        response.setEventType(event.getEventType());
+        response.setStartTime(event.getStartTime());
+        response.setEndTime(event.getEndTime());
+        response.setAllDay(event.getAllDay());
+        response.setLocation(event.getLocation());
+        response.setCreatedBy(event.getCreatedBy());
+        response.setCreatedAt(event.getCreatedAt());
+        response.setUpdatedAt(event.getUpdatedAt());
+        response.setTaskId(event.getTaskId());
+        
+        if (event.getRecurrenceRule() != null) {
+            response.setRecurrenceRule(event.getRecurrenceRule());
+            response.setRecurrenceExceptions(calendarOccurrenceService.exceptionsList(event.getRecurrenceExceptions()));
+        }
+        
+        return response;
+    }
+    
+    private void rejectSyncedDeadline(CalendarEvent event) {
+        // Owned by DeadlineEventSyncService; an edit would be overwritten, and unlinking or deleting it
+        // would make the next reconcile create it again
+        if (event.getEventType() == CalendarEventType.TASK_DEADLINE && event.getTask() != null) {
+            throw new IllegalArgumentException("Deadline events follow their task's deadline; change the task instead");
+        }
+    }
+    
+    private void validateNotSyncedDeadline(CalendarEvent event, CalendarEventRequest request) {
+        // Task deadlines get their event from DeadlineEventSyncService; a second one would be a duplicate
+        if ((request.getEventType() == CalendarEventType.TASK_DEADLINE || event.getEventType() == CalendarEventType.TASK_DEADLINE)
+                && request.getTaskId() != null) {
+            throw new IllegalArgumentException("Deadline events for tasks are created from the task's deadline");
+        }
+    }
+    
+    private void validateTimes(CalendarEvent event) {
+        if (event.getStartTime() == null) {
+            throw new IllegalArgumentException("startTime is required");
+        }
+        if (event.getEndTime() != null && event.getEndTime().isBefore(event.getStartTime())) {
+            throw new IllegalArgumentException("endTime must not be before startTime");
+        }
+    }
+    
+    private CalendarEventResponse mapOccurrenceToCalendarEventResponse(CalendarOccurrenceService.Occurrence occurrence) {
+        CalendarEventResponse response = mapToCalendarEventResponse(occurrence.event());
+        response.setSeriesStartTime(occurrence.event().getStartTime());
+        response.setStartTime(occurrence.startTime());
+        response.setEndTime(occurrence.endTime());
         return response;
     }
 }
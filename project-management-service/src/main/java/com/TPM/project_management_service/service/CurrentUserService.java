@@ -0,0 +1,54 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.client.UserProfileResponse;
+import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.model.DirectoryUser;
+import com.TPM.project_management_service.repository.DirectoryUserRepository;
+import com.TPM.project_management_service.security.JwtValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Identifies the caller of a request. A token this service can verify itself, carrying the
+ * {@code userId} claim of an enabled user in the local {@link DirectoryUser} replica, is resolved
+ * without leaving the service. Anything else (older tokens, another signing key, users not yet
+ * replicated or disabled) is resolved by User-Auth, which also rejects invalid tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CurrentUserService {
+    private static final String USER_ID_CLAIM = "userId";
+
+    private final JwtValidator jwtValidator;
+    private final DirectoryUserRepository directoryUserRepository;
+    private final UserServiceClient userServiceClient;
+
+    public UserProfileResponse resolve(String token) {
+        Optional<DirectoryUser> local = jwtValidator.parseValidToken(token)
+                .map(claims -> claims.get(USER_ID_CLAIM, Integer.class))
+                .flatMap(directoryUserRepository::findById)
+                .filter(user -> Boolean.TRUE.equals(user.getEnabled()));
+        if (local.isPresent()) {
+            return toProfile(local.get());
+        }
+        log.debug("Caller not resolvable locally, asking auth service");
+        return userServiceClient.getUserProfile(token);
+    }
+
+    private UserProfileResponse toProfile(DirectoryUser directoryUser) {
+        UserProfileResponse.User user = new UserProfileResponse.User();
+        user.setId(directoryUser.getUserId());
+        user.setFirstname(directoryUser.getFirstname());
+        user.setLastname(directoryUser.getLastname());
+        user.setEnabled(true);
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUser(user);
+        profile.setPosition(directoryUser.getPosition());
+        profile.setProfileImageUrl(directoryUser.getProfileImageUrl());
+        return profile;
+    }
+}
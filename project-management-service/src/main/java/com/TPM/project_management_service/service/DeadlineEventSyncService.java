@@ -0,0 +1,211 @@
+package com.TPM.project_management_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one TASK_DEADLINE calendar event per task with a deadline, so calendars read deadlines
+ * from calendar_events alone. Tasks changed by TaskService are queued after their transaction
+ * commits and synced in set-based batches; a reconcile pass over all tasks on startup and every
+ * night repairs anything the queue missed (e.g. a restart with pending work).
+ * <p>
+ * A synced event is identified by (task_id, event_type = TASK_DEADLINE), which is unique. Its
+ * start is the deadline, its title is derived from the task, and it is removed once the task
+ * no longer has a deadline. A project without a calendar gets one on its first deadline. Projects
+ * being deleted or archived are skipped, so a sync cannot race their purge.
+ */
+@Service
+@Slf4j
+public class DeadlineEventSyncService {
+    private static final int BATCH_SIZE = 500;
+
+    private static final String ENSURE_CALENDARS =
+            "INSERT INTO project_calendars (project_id, name, description, created_at) " +
+            "SELECT DISTINCT p.id, p.name || ' Calendar', 'Calendar for ' || p.name, LOCALTIMESTAMP " +
+            "FROM tasks t JOIN projects p ON p.id = t.project_id " +
+            "WHERE t.id = ANY(CAST(? AS bigint[])) AND t.deadline IS NOT NULL AND p.status = 'ACTIVE' " +
+            "ON CONFLICT (project_id) DO NOTHING";
+
+    // Only rows that actually change are written and returned
+    private static final String UPSERT_EVENTS =
+            "INSERT INTO calendar_events (calendar_id, title, event_type, start_time, all_day, created_by, created_at, task_id) " +
+            "SELECT c.id, LEFT('Deadline: ' || t.title, 255), 'TASK_DEADLINE', t.deadline, false, t.creator_id, LOCALTIMESTAMP, t.id " +
+            "FROM tasks t JOIN project_calendars c ON c.project_id = t.project_id " +
+            "JOIN projects p ON p.id = t.project_id " +
+            "WHERE t.id = ANY(CAST(? AS bigint[])) AND t.deadline IS NOT NULL AND p.status = 'ACTIVE' " +
+            "ON CONFLICT (task_id) WHERE event_type = 'TASK_DEADLINE' AND task_id IS NOT NULL DO UPDATE " +
+            "SET calendar_id = EXCLUDED.calendar_id, title = EXCLUDED.title, start_time = EXCLUDED.start_time, " +
+            "updated_at = LOCALTIMESTAMP " +
+            "WHERE calendar_events.start_time IS DISTINCT FROM EXCLUDED.start_time " +
+            "OR calendar_events.title IS DISTINCT FROM EXCLUDED.title " +
+            "OR calendar_events.calendar_id IS DISTINCT FROM EXCLUDED.calendar_id " +
+            "RETURNING task_id, calendar_id, start_time";
+
+    // Where the batch's events were before the upsert, so the months they leave are evicted too
+    private static final String SELECT_CURRENT_EVENTS =
+            "SELECT task_id, calendar_id, start_time FROM calendar_events " +
+            "WHERE event_type = 'TASK_DEADLINE' AND task_id = ANY(CAST(? AS bigint[]))";
+
+    private static final String DELETE_STALE_EVENTS =
+            "DELETE FROM calendar_events e WHERE e.event_type = 'TASK_DEADLINE' AND e.task_id = ANY(CAST(? AS bigint[])) " +
+            "AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.id = e.task_id AND t.deadline IS NOT NULL) " +
+            "RETURNING e.task_id, e.calendar_id, e.start_time";
+
+    // Deleting a task also deletes its subtasks, so their deadline events go too
+    private static final String DELETE_TASK_TREE_EVENTS =
+            "WITH RECURSIVE tree AS (SELECT id FROM tasks WHERE id = ? " +
+            "UNION ALL SELECT t.id FROM tasks t JOIN tree ON t.parent_task_id = tree.id) " +
+            "DELETE FROM calendar_events WHERE event_type = 'TASK_DEADLINE' AND task_id IN (SELECT id FROM tree) " +
+            "RETURNING task_id, calendar_id, start_time";
+
+    private static final String MARK_CALENDARS_CHANGED =
+            "UPDATE project_calendars SET content_version = COALESCE(content_version, 0) + 1, " +
+            "content_updated_at = LOCALTIMESTAMP WHERE id = ANY(CAST(? AS bigint[]))";
+
+    private static final RowMapper<SyncedEvent> SYNCED_EVENT = (rs, rowNum) ->
+            new SyncedEvent(rs.getLong(1), rs.getLong(2), rs.getObject(3, LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CalendarMonthCache calendarMonthCache;
+    private final TaskExecutor maintenanceExecutor;
+    private final Set<Long> pendingTaskIds = ConcurrentHashMap.newKeySet();
+
+    private record SyncedEvent(Long taskId, Long calendarId, LocalDateTime startTime) {
+    }
+
+    public DeadlineEventSyncService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    CalendarMonthCache calendarMonthCache,
+                                    @Qualifier("maintenanceExecutor") TaskExecutor maintenanceExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.calendarMonthCache = calendarMonthCache;
+        this.maintenanceExecutor = maintenanceExecutor;
+    }
+
+    /**
+     * Queues the task for syncing once the current transaction commits; nothing is queued on rollback.
+     */
+    public void taskChanged(Long taskId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingTaskIds.add(taskId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendingTaskIds.add(taskId);
+            }
+        });
+    }
+
+    /**
+     * Removes the deadline events of a task and its subtasks inside the caller's transaction,
+     * ahead of deleting the task; they reference it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeForTaskTree(Long taskId) {
+        markCalendarsChanged(jdbcTemplate.query(DELETE_TASK_TREE_EVENTS, SYNCED_EVENT, taskId));
+    }
+
+    @Scheduled(fixedDelayString = "${application.calendar.deadline-sync-interval:2s}")
+    public void flush() {
+        while (!pendingTaskIds.isEmpty()) {
+            List<Long> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Long> iterator = pendingTaskIds.iterator();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                syncBatch(batch);
+            } catch (Exception e) {
+                // Retried on the next run; the nightly reconcile is the backstop
+                pendingTaskIds.addAll(batch);
+                log.error("Error syncing deadline events for {} tasks: {}", batch.size(), e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    // The startup pass scans every task, so it runs on the maintenance thread, not the startup thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        maintenanceExecutor.execute(this::reconcile);
+    }
+
+    @Scheduled(cron = "${application.calendar.deadline-reconcile-cron:0 15 3 * * *}")
+    public void reconcile() {
+        try {
+            long lastId = 0;
+            int batches = 0;
+            while (true) {
+                List<Long> batch = jdbcTemplate.queryForList(
+                        "SELECT id FROM tasks WHERE id > ? ORDER BY id LIMIT ?", Long.class, lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                syncBatch(batch);
+                lastId = batch.get(batch.size() - 1);
+                batches++;
+            }
+            log.info("Reconciled deadline events in {} batches of up to {} tasks", batches, BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Error reconciling deadline events: {}", e.getMessage(), e);
+        }
+    }
+
+    private void syncBatch(List<Long> taskIds) {
+        Long[] ids = taskIds.toArray(Long[]::new);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(ENSURE_CALENDARS, (Object) ids);
+            Map<Long, SyncedEvent> before = new HashMap<>();
+            jdbcTemplate.query(SELECT_CURRENT_EVENTS, SYNCED_EVENT, (Object) ids).forEach(event -> before.put(event.taskId(), event));
+            List<SyncedEvent> changed = new ArrayList<>();
+            for (SyncedEvent event : jdbcTemplate.query(UPSERT_EVENTS, SYNCED_EVENT, (Object) ids)) {
+                changed.add(event);
+                if (before.containsKey(event.taskId())) {
+                    changed.add(before.get(event.taskId()));
+                }
+            }
+            changed.addAll(jdbcTemplate.query(DELETE_STALE_EVENTS, SYNCED_EVENT, (Object) ids));
+            markCalendarsChanged(changed);
+        });
+    }
+
+    private void markCalendarsChanged(List<SyncedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Set<Long> calendarIds = new HashSet<>();
+        for (SyncedEvent event : events) {
+            calendarIds.add(event.calendarId());
+            // Deadline events are instants, so only the month of their start is affected
+            calendarMonthCache.invalidate(event.calendarId(), event.startTime(), event.startTime());
+        }
+        jdbcTemplate.update(MARK_CALENDARS_CHANGED, (Object) calendarIds.toArray(Long[]::new));
+    }
+}
@@ -0,0 +1,232 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.FreeBusyResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.CalendarEventView;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Computes when a project's members are busy and proposes free meeting slots.
+ * <p>
+ * A member is busy during timed MEETING and OTHER events on the project's calendar, during the
+ * same kinds of events they created on any calendar, and while a timer of theirs is running (up
+ * to a short hold past now). All events in the window are read with two queries, busy intervals
+ * are merged with a sort-and-sweep per member and once more across the team, and free slots are
+ * read off the gaps, so the cost is O(n log n) in the number of events.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FreeBusyService {
+    private static final int MAX_SLOTS = 50;
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectCalendarProvisioner projectCalendarProvisioner;
+    private final CalendarEventRepository calendarEventRepository;
+    private final CalendarOccurrenceService calendarOccurrenceService;
+    private final ActiveTimerRegistry activeTimerRegistry;
+    private final CurrentUserService currentUserService;
+
+    @Value("${application.calendar.max-window:100d}")
+    private Duration maxWindow;
+
+    // How long past now a running timer keeps its user busy
+    @Value("${application.calendar.running-timer-hold:30m}")
+    private Duration runningTimerHold;
+
+    private record Span(LocalDateTime start, LocalDateTime end) {
+    }
+
+    @Transactional(readOnly = true)
+    public FreeBusyResponse getFreeBusy(Long projectId, LocalDateTime start, LocalDateTime end, int durationMinutes,
+                                        int count, int granularityMinutes, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Computing free/busy for project {} from {} to {} by user {}", projectId, start, end, userProfile.getUser().getId());
+
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+            // Check if user is a member of the project
+            Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+            if (memberOpt.isEmpty() && !project.getOwnerId().equals(userProfile.getUser().getId())) {
+                throw new UnauthorizedAccessException("User is not a member of this project");
+            }
+
+            if (!end.isAfter(start)) {
+                throw new IllegalArgumentException("end must be after start");
+            }
+            if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+                throw new IllegalArgumentException("The requested window may span at most " + maxWindow.toDays() + " days");
+            }
+            if (durationMinutes < 1 || durationMinutes > 24 * 60) {
+                throw new IllegalArgumentException("durationMinutes must be between 1 and 1440");
+            }
+            if (count < 1 || count > MAX_SLOTS) {
+                throw new IllegalArgumentException("count must be between 1 and " + MAX_SLOTS);
+            }
+            if (granularityMinutes < 1 || granularityMinutes > 24 * 60) {
+                throw new IllegalArgumentException("granularityMinutes must be between 1 and 1440");
+            }
+
+            Set<Integer> memberIds = new TreeSet<>();
+            memberIds.add(project.getOwnerId());
+            projectMemberRepository.findByProjectId(projectId).forEach(member -> memberIds.add(member.getUserId()));
+            Long calendarId = projectCalendarProvisioner.calendarIdFor(project);
+
+            Map<Integer, List<Span>> spansByMember = new HashMap<>();
+            memberIds.forEach(memberId -> spansByMember.put(memberId, new ArrayList<>()));
+
+            // Project calendar events block everyone, other events only the member who created them
+            for (CalendarEventView event : calendarEventRepository.findBlockingOverlapping(calendarId, memberIds, start, end)) {
+                addEventSpan(spansByMember, calendarId, event, event.getStartTime(), event.getEndTime(), start, end);
+            }
+            List<CalendarEventView> series = calendarEventRepository.findBlockingSeriesOverlapping(calendarId, memberIds, start, end);
+            for (CalendarOccurrenceService.Occurrence occurrence : calendarOccurrenceService.expand(series, start, end)) {
+                addEventSpan(spansByMember, calendarId, occurrence.event(), occurrence.startTime(), occurrence.endTime(), start, end);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Integer memberId : memberIds) {
+                activeTimerRegistry.getRunning(memberId).ifPresent(timer ->
+                        addSpan(spansByMember.get(memberId), timer.getStartTime(), now.plus(runningTimerHold), start, end));
+            }
+
+            FreeBusyResponse response = new FreeBusyResponse();
+            response.setProjectId(projectId);
+            response.setStart(start);
+            response.setEnd(end);
+            response.setDurationMinutes(durationMinutes);
+
+            List<Span> teamSpans = new ArrayList<>();
+            for (Integer memberId : memberIds) {
+                List<Span> busy = merge(spansByMember.get(memberId));
+                teamSpans.addAll(busy);
+                response.getMembers().add(new FreeBusyResponse.MemberBusy(memberId, toIntervals(busy)));
+            }
+            List<Span> teamBusy = merge(teamSpans);
+            response.setBusy(toIntervals(teamBusy));
+
+            // Slots are never proposed in the past
+            LocalDateTime searchStart = start.isAfter(now) ? start : now;
+            response.setFreeSlots(toIntervals(findFreeSlots(teamBusy, searchStart, end,
+                    Duration.ofMinutes(durationMinutes), count, granularityMinutes)));
+            return response;
+        } catch (Exception e) {
+            log.error("Error computing free/busy for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private void addEventSpan(Map<Integer, List<Span>> spansByMember, Long calendarId, CalendarEventView event,
+                              LocalDateTime eventStart, LocalDateTime eventEnd, LocalDateTime start, LocalDateTime end) {
+        if (eventEnd == null) {
+            return;
+        }
+        if (event.getCalendarId().equals(calendarId)) {
+            spansByMember.values().forEach(spans -> addSpan(spans, eventStart, eventEnd, start, end));
+        } else if (spansByMember.containsKey(event.getCreatedBy())) {
+            addSpan(spansByMember.get(event.getCreatedBy()), eventStart, eventEnd, start, end);
+        }
+    }
+
+    private void addSpan(List<Span> spans, LocalDateTime spanStart, LocalDateTime spanEnd, LocalDateTime start, LocalDateTime end) {
+        // Clipped to the window; empty and outside spans are dropped
+        LocalDateTime clippedStart = spanStart.isBefore(start) ? start : spanStart;
+        LocalDateTime clippedEnd = spanEnd.isAfter(end) ? end : spanEnd;
+        if (clippedEnd.isAfter(clippedStart)) {
+            spans.add(new Span(clippedStart, clippedEnd));
+        }
+    }
+
+    /**
+     * Sorts the spans by start and sweeps once, joining every span that overlaps or touches the previous one.
+     */
+    private List<Span> merge(List<Span> spans) {
+        spans.sort(Comparator.comparing(Span::start));
+        List<Span> merged = new ArrayList<>();
+        Span current = null;
+        for (Span span : spans) {
+            if (current != null && !span.start().isAfter(current.end())) {
+                if (span.end().isAfter(current.end())) {
+                    current = new Span(current.start(), span.end());
+                }
+                continue;
+            }
+            if (current != null) {
+                merged.add(current);
+            }
+            current = span;
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+
+    /**
+     * Walks the gaps between the merged busy spans and takes back-to-back slots from each gap,
+     * each starting on the granularity grid.
+     */
+    private List<Span> findFreeSlots(List<Span> busy, LocalDateTime from, LocalDateTime to, Duration length,
+                                     int count, int granularityMinutes) {
+        List<Span> slots = new ArrayList<>();
+        LocalDateTime cursor = alignUp(from, granularityMinutes);
+        int next = 0;
+        while (slots.size() < count) {
+            while (next < busy.size() && !busy.get(next).end().isAfter(cursor)) {
+                next++;
+            }
+            LocalDateTime gapEnd = next < busy.size() && busy.get(next).start().isBefore(to) ? busy.get(next).start() : to;
+            if (cursor.plus(length).isAfter(gapEnd)) {
+                if (gapEnd.equals(to)) {
+                    break;
+                }
+                // Slot does not fit before the next busy span; continue after it
+                cursor = alignUp(busy.get(next).end(), granularityMinutes);
+                continue;
+            }
+            slots.add(new Span(cursor, cursor.plus(length)));
+            cursor = alignUp(cursor.plus(length), granularityMinutes);
+        }
+        return slots;
+    }
+
+    private LocalDateTime alignUp(LocalDateTime time, int granularityMinutes) {
+        LocalDateTime midnight = time.toLocalDate().atStartOfDay();
+        // Fractional seconds round up, so the aligned time is never before the input
+        long seconds = Duration.between(midnight, time).getSeconds() + (time.getNano() > 0 ? 1 : 0);
+        long step = granularityMinutes * 60L;
+        long aligned = (seconds + step - 1) / step * step;
+        return midnight.plusSeconds(aligned);
+    }
+
+    private List<FreeBusyResponse.Interval> toIntervals(List<Span> spans) {
+        return spans.stream()
+                .map(span -> new FreeBusyResponse.Interval(span.start(), span.end()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,46 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.ActiveTimerResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Stops timers that have been running longer than the configured idle timeout. Candidates
+ * come from the {@link ActiveTimerRegistry}, so a sweep with nothing to stop reads no rows.
+ * A stopped timer is closed at start time plus the timeout rather than at sweep time.
+ */
+@Service
+@Slf4j
+public class IdleTimerSweeper {
+    private final ActiveTimerRegistry activeTimerRegistry;
+    private final TimeTrackingService timeTrackingService;
+    private final Duration idleTimeout;
+
+    public IdleTimerSweeper(ActiveTimerRegistry activeTimerRegistry,
+                            TimeTrackingService timeTrackingService,
+                            @Value("${application.time-tracking.idle-timeout:12h}") Duration idleTimeout) {
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.timeTrackingService = timeTrackingService;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${application.time-tracking.idle-sweep-interval:60s}")
+    public void stopIdleTimers() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(idleTimeout);
+        for (ActiveTimerResponse timer : activeTimerRegistry.getAllRunning()) {
+            if (!timer.getStartTime().isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                timeTrackingService.stopIdleTimeTracking(timer.getUserId(), timer.getTimeTrackingId(), timer.getStartTime().plus(idleTimeout));
+            } catch (Exception e) {
+                log.error("Error auto-stopping idle time tracking {}: {}", timer.getTimeTrackingId(), e.getMessage(), e);
+            }
+        }
+    }
+}
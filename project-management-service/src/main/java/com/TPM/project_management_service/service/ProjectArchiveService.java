@@ -0,0 +1,304 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.CalendarEventResponse;
+import com.TPM.project_management_service.dto.ProjectArchiveResponse;
+import com.TPM.project_management_service.dto.ProjectArchiveSnapshot;
+import com.TPM.project_management_service.dto.ProjectMemberResponse;
+import com.TPM.project_management_service.dto.ProjectResponse;
+import com.TPM.project_management_service.dto.TaskResponse;
+import com.TPM.project_management_service.dto.TimeTrackingResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.CalendarEvent;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectArchive;
+import com.TPM.project_management_service.model.ProjectCalendar;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.model.ProjectStatus;
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.model.TimeTracking;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.ProjectArchiveRepository;
+import com.TPM.project_management_service.repository.ProjectCalendarRepository;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import com.TPM.project_management_service.repository.TimeTrackingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves finished projects out of the hot tables into a single compressed snapshot row and serves
+ * archived projects read-only from that snapshot. The hot rows are removed by the same batched
+ * background purge used for project deletion.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectArchiveService {
+    private final ProjectRepository projectRepository;
+    private final ProjectArchiveRepository projectArchiveRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectCalendarRepository projectCalendarRepository;
+    private final CalendarEventRepository calendarEventRepository;
+    private final TaskRepository taskRepository;
+    private final TimeTrackingRepository timeTrackingRepository;
+    private final ProjectPurgeService projectPurgeService;
+    private final CurrentUserService currentUserService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public ProjectArchiveResponse archiveProject(Long id, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Archiving project in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
+
+            // Waits for in-flight writes to the project and holds off new ones until the status change commits
+            projectRepository.lockActiveExclusive(id);
+            Project project = projectRepository.findById(id)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + id));
+
+            if (!project.getOwnerId().equals(userProfile.getUser().getId())) {
+                log.error("Unauthorized archive attempt - userId: {}, projectId: {}", userProfile.getUser().getId(), id);
+                throw new UnauthorizedAccessException("Only project owner can archive the project");
+            }
+
+            if (projectArchiveRepository.existsById(id)) {
+                throw new IllegalArgumentException("Project is already archived");
+            }
+
+            ProjectArchiveSnapshot snapshot = buildSnapshot(project);
+            byte[] json = objectMapper.writeValueAsBytes(snapshot);
+
+            ProjectArchive archive = new ProjectArchive();
+            archive.setProjectId(project.getId());
+            archive.setName(project.getName());
+            archive.setOwnerId(project.getOwnerId());
+            archive.setArchivedBy(userProfile.getUser().getId());
+            archive.setTaskCount(snapshot.getTasks().size());
+            archive.setTimeTrackingCount(snapshot.getTimeTrackings().size());
+            archive.setEventCount(snapshot.getCalendarEvents().size());
+            archive.setUncompressedSize(json.length);
+            archive.setPayload(gzip(json));
+            archive = projectArchiveRepository.save(archive);
+
+            // Hide the project now; its hot rows are purged in batches after commit
+            project.setStatus(ProjectStatus.ARCHIVING);
+            projectRepository.save(project);
+            projectPurgeService.schedulePurge(project.getId(), userProfile.getUser().getId());
+
+            log.info("Project archived - id: {}, {} bytes compressed to {}", id, json.length, archive.getPayload().length);
+            return mapToArchiveResponse(archive, null);
+        } catch (IOException e) {
+            log.error("Error serializing project {} for archive: {}", id, e.getMessage(), e);
+            throw new UncheckedIOException("Failed to archive project: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Error archiving project: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectArchiveResponse getArchivedProject(Long id, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting archived project in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
+
+            ProjectArchive archive = projectArchiveRepository.findById(id)
+                    .orElseThrow(() -> new ProjectNotFoundException("Archived project not found with id: " + id));
+            ProjectArchiveSnapshot snapshot = readSnapshot(archive);
+
+            if (!isUserAuthorized(snapshot, userProfile.getUser().getId())) {
+                log.error("Unauthorized archive access attempt - userId: {}, projectId: {}", userProfile.getUser().getId(), id);
+                throw new UnauthorizedAccessException("User is not authorized to access this project");
+            }
+
+            return mapToArchiveResponse(archive, snapshot);
+        } catch (Exception e) {
+            log.error("Error getting archived project: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Read-only fallback used when a project is no longer in the hot tables.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProjectResponse> findArchivedProject(Long id, Integer userId) {
+        return projectArchiveRepository.findById(id)
+                .map(this::readSnapshot)
+                .map(snapshot -> {
+                    if (!isUserAuthorized(snapshot, userId)) {
+                        throw new UnauthorizedAccessException("User is not authorized to access this project");
+                    }
+                    return snapshot.getProject();
+                });
+    }
+
+    private ProjectArchiveSnapshot buildSnapshot(Project project) {
+        Long projectId = project.getId();
+        ProjectArchiveSnapshot snapshot = new ProjectArchiveSnapshot();
+
+        ProjectResponse projectResponse = new ProjectResponse();
+        projectResponse.setId(project.getId());
+        projectResponse.setName(project.getName());
+        projectResponse.setDescription(project.getDescription());
+        projectResponse.setOwnerId(project.getOwnerId());
+        projectResponse.setCreatedAt(project.getCreatedAt());
+        projectResponse.setUpdatedAt(project.getUpdatedAt());
+        projectResponse.setMemberIds(new HashSet<>(project.getMemberIds()));
+        projectResponse.setAdminIds(new HashSet<>(project.getAdminIds()));
+        projectResponse.setStatus(ProjectStatus.ARCHIVED);
+        snapshot.setProject(projectResponse);
+
+        snapshot.setTasks(taskRepository.findByProjectId(projectId).stream()
+                .map(this::mapToTaskResponse)
+                .collect(Collectors.toList()));
+        snapshot.setMembers(projectMemberRepository.findByProjectId(projectId).stream()
+                .map(member -> mapToProjectMemberResponse(member, projectId))
+                .collect(Collectors.toList()));
+        snapshot.setTimeTrackings(timeTrackingRepository.findByTaskProjectId(projectId).stream()
+                .map(this::mapToTimeTrackingResponse)
+                .collect(Collectors.toList()));
+
+        Optional<ProjectCalendar> calendar = projectCalendarRepository.findByProjectId(projectId);
+        calendar.ifPresent(c -> {
+            snapshot.setCalendarName(c.getName());
+            snapshot.setCalendarDescription(c.getDescription());
+            snapshot.setCalendarEvents(calendarEventRepository.findByCalendarId(c.getId()).stream()
+                    .map(event -> mapToCalendarEventResponse(event, c.getId()))
+                    .collect(Collectors.toList()));
+        });
+        return snapshot;
+    }
+
+    private boolean isUserAuthorized(ProjectArchiveSnapshot snapshot, Integer userId) {
+        ProjectResponse project = snapshot.getProject();
+        return project.getOwnerId().equals(userId)
+                || (project.getMemberIds() != null && project.getMemberIds().contains(userId))
+                || (project.getAdminIds() != null && project.getAdminIds().contains(userId))
+                || snapshot.getMembers().stream().anyMatch(member -> member.getUserId().equals(userId));
+    }
+
+    private ProjectArchiveSnapshot readSnapshot(ProjectArchive archive) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+            return objectMapper.readValue(in, ProjectArchiveSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive for project " + archive.getProjectId(), e);
+        }
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(data.length / 4, 512));
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private ProjectArchiveResponse mapToArchiveResponse(ProjectArchive archive, ProjectArchiveSnapshot snapshot) {
+        ProjectArchiveResponse response = new ProjectArchiveResponse();
+        response.setProjectId(archive.getProjectId());
+        response.setName(archive.getName());
+        response.setOwnerId(archive.getOwnerId());
+        response.setArchivedBy(archive.getArchivedBy());
+        response.setArchivedAt(archive.getArchivedAt());
+        response.setTaskCount(archive.getTaskCount());
+        response.setTimeTrackingCount(archive.getTimeTrackingCount());
+        response.setEventCount(archive.getEventCount());
+        response.setCompressedSize(archive.getPayload().length);
+        response.setUncompressedSize(archive.getUncompressedSize());
+        response.setSnapshot(snapshot);
+        return response;
+    }
+
+    private TaskResponse mapToTaskResponse(Task task) {
+        TaskResponse response = new TaskResponse();
+        response.setId(task.getId());
+        response.setTitle(task.getTitle());
+        response.setDescription(task.getDescription());
+        response.setProjectId(task.getProject().getId());
+        response.setCreatorId(task.getCreatorId());
+        response.setAssigneeId(task.getAssigneeId());
+        response.setStatus(task.getStatus());
+        response.setPriority(task.getPriority());
+        response.setDeadline(task.getDeadline());
+        response.setEstimatedHours(task.getEstimatedHours());
+        response.setCreatedAt(task.getCreatedAt());
+        response.setUpdatedAt(task.getUpdatedAt());
+        if (task.getParentTask() != null) {
+            response.setParentTaskId(task.getParentTask().getId());
+        }
+        return response;
+    }
+
+    private ProjectMemberResponse mapToProjectMemberResponse(ProjectMember member, Long projectId) {
+        ProjectMemberResponse response = new ProjectMemberResponse();
+        response.setId(member.getId());
+        response.setProjectId(projectId);
+        response.setUserId(member.getUserId());
+        response.setRole(member.getRole());
+        response.setJoinedAt(member.getJoinedAt());
+        response.setInvitedBy(member.getInvitedBy());
+        response.setInvitationAccepted(member.getInvitationAccepted());
+        return response;
+    }
+
+    private TimeTrackingResponse mapToTimeTrackingResponse(TimeTracking timeTracking) {
+        TimeTrackingResponse response = new TimeTrackingResponse();
+        response.setId(timeTracking.getId());
+        response.setTaskId(timeTracking.getTask().getId());
+        response.setUserId(timeTracking.getUserId());
+        response.setStartTime(timeTracking.getStartTime());
+        response.setEndTime(timeTracking.getEndTime());
+        response.setDurationMinutes(timeTracking.getDurationMinutes());
+        response.setDurationSeconds(timeTracking.getDurationSeconds());
+        response.setDescription(timeTracking.getDescription());
+        response.setCreatedAt(timeTracking.getCreatedAt());
+        response.setUpdatedAt(timeTracking.getUpdatedAt());
+        return response;
+    }
+
+    private CalendarEventResponse mapToCalendarEventResponse(CalendarEvent event, Long calendarId) {
+        CalendarEventResponse response = new CalendarEventResponse();
+        response.setId(event.getId());
+        response.setCalendarId(calendarId);
+        response.setTitle(event.getTitle());
+        response.setDescription(event.getDescription());
+        response.setEventType(event.getEventType());
+        response.setStartTime(event.getStartTime());
+        response.setEndTime(event.getEndTime());
+        response.setAllDay(event.getAllDay());
+        response.setLocation(event.getLocation());
+        response.setCreatedBy(event.getCreatedBy());
+        response.setCreatedAt(event.getCreatedAt());
+        response.setUpdatedAt(event.getUpdatedAt());
+        if (event.getTask() != null) {
+            response.setTaskId(event.getTask().getId());
+        }
+        // Series are archived once, with their rule
+        response.setRecurrenceRule(event.getRecurrenceRule());
+        if (event.getRecurrenceExceptions() != null) {
+            response.setRecurrenceExceptions(Arrays.stream(event.getRecurrenceExceptions().split(","))
+                    .map(LocalDateTime::parse)
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+}
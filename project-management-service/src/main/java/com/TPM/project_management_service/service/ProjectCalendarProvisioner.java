@@ -0,0 +1,78 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.repository.ProjectCalendarRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every project has exactly one calendar, created together with the project. Creation is an
+ * insert that does nothing when the unique project_id already has a calendar, so concurrent
+ * callers cannot create duplicates. A project's calendar id never changes while the project
+ * exists, which lets the projectId to calendarId mapping be cached in-process without expiry.
+ */
+@Service
+@Slf4j
+public class ProjectCalendarProvisioner {
+    private final ProjectCalendarRepository projectCalendarRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<Long, Long> calendarIdByProject = new ConcurrentHashMap<>();
+
+    public ProjectCalendarProvisioner(ProjectCalendarRepository projectCalendarRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.projectCalendarRepository = projectCalendarRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void provision(Project project) {
+        projectCalendarRepository.insertIfAbsent(project.getId(), project.getName() + " Calendar",
+                "Calendar for " + project.getName());
+    }
+
+    /**
+     * The project's calendar id, creating the calendar for projects that predate provisioning.
+     * Creation commits in its own transaction, so callers inside read-only transactions can use it
+     * and the id is only cached once the row exists.
+     */
+    public Long calendarIdFor(Project project) {
+        Long cached = calendarIdByProject.get(project.getId());
+        if (cached != null) {
+            return cached;
+        }
+        Long calendarId = projectCalendarRepository.findIdByProjectId(project.getId()).orElse(null);
+        if (calendarId == null) {
+            calendarId = newTransaction.execute(status -> {
+                provision(project);
+                return projectCalendarRepository.findIdByProjectId(project.getId())
+                        .orElseThrow(() -> new IllegalStateException("Calendar could not be created for project " + project.getId()));
+            });
+        }
+        calendarIdByProject.put(project.getId(), calendarId);
+        return calendarId;
+    }
+
+    public void forget(Long projectId) {
+        calendarIdByProject.remove(projectId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void provisionMissing() {
+        int created = projectCalendarRepository.insertMissingForActiveProjects();
+        if (created > 0) {
+            log.info("Created calendars for {} existing projects", created);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.CalendarEventResponse;
+import com.TPM.project_management_service.dto.ProjectDashboardResponse;
+import com.TPM.project_management_service.dto.ProjectMemberResponse;
+import com.TPM.project_management_service.dto.ProjectResponse;
+import com.TPM.project_management_service.dto.TimeTrackingResponse;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.CalendarEvent;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.model.TaskStatus;
+import com.TPM.project_management_service.model.TimeTracking;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.CalendarEventView;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import com.TPM.project_management_service.repository.TimeTrackingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the project landing page in one call: the caller is authenticated once, then the
+ * independent sub-queries run concurrently, each in its own read-only transaction.
+ */
+@Service
+@Slf4j
+public class ProjectDashboardService {
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final TaskRepository taskRepository;
+    private final CalendarEventRepository calendarEventRepository;
+    private final TimeTrackingRepository timeTrackingRepository;
+    private final CurrentUserService currentUserService;
+    private final TaskExecutor dashboardExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CalendarOccurrenceService calendarOccurrenceService;
+
+    private static final int UPCOMING_EVENTS = 20;
+    private static final int UPCOMING_SERIES_DAYS = 30;
+
+    public ProjectDashboardService(ProjectRepository projectRepository,
+                                   ProjectMemberRepository projectMemberRepository,
+                                   TaskRepository taskRepository,
+                                   CalendarEventRepository calendarEventRepository,
+                                   TimeTrackingRepository timeTrackingRepository,
+                                   CurrentUserService currentUserService,
+                                   @Qualifier("dashboardExecutor") TaskExecutor dashboardExecutor,
+                                   PlatformTransactionManager transactionManager,
+                                   CalendarOccurrenceService calendarOccurrenceService) {
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.taskRepository = taskRepository;
+        this.calendarEventRepository = calendarEventRepository;
+        this.timeTrackingRepository = timeTrackingRepository;
+        this.currentUserService = currentUserService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.calendarOccurrenceService = calendarOccurrenceService;
+    }
+
+    public ProjectDashboardResponse getDashboard(Long projectId, String token) {
+        try {
+            // Authenticate once for the whole dashboard
+            var userProfile = currentUserService.resolve(token);
+            Integer userId = userProfile.getUser().getId();
+            log.info("Getting dashboard for project {} by user {}", projectId, userId);
+
+            ProjectResponse project = readOnly(() -> {
+                Project p = projectRepository.findById(projectId)
+                        .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+                // Check if user is a member of the project
+                Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userId);
+                if (memberOpt.isEmpty() && !p.getOwnerId().equals(userId)) {
+                    throw new UnauthorizedAccessException("User is not a member of this project");
+                }
+                return mapToProjectResponse(p);
+            });
+
+            CompletableFuture<List<ProjectMemberResponse>> members = async(() ->
+                    projectMemberRepository.findByProjectId(projectId).stream()
+                            .map(member -> mapToProjectMemberResponse(member, projectId))
+                            .collect(Collectors.toList()));
+            CompletableFuture<Map<TaskStatus, Long>> taskCounts = async(() -> {
+                Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+                for (TaskStatus status : TaskStatus.values()) {
+                    counts.put(status, 0L);
+                }
+                for (Object[] row : taskRepository.countByStatusForProject(projectId)) {
+                    counts.put((TaskStatus) row[0], (Long) row[1]);
+                }
+                return counts;
+            });
+            CompletableFuture<List<CalendarEventResponse>> upcomingEvents = async(() -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<CalendarEventResponse> events = calendarEventRepository
+                        .findTop20ByCalendarProjectIdAndRecurrenceRuleIsNullAndStartTimeGreaterThanEqualOrderByStartTimeAsc(projectId, now)
+                        .stream()
+                        .map(this::mapToCalendarEventResponse)
+                        .collect(Collectors.toList());
+                // Recurring series contribute their occurrences of the coming weeks
+                LocalDateTime horizon = now.plusDays(UPCOMING_SERIES_DAYS);
+                calendarOccurrenceService.expand(
+                                calendarEventRepository.findSeriesOverlappingForProject(projectId, now, horizon), now, horizon)
+                        .stream()
+                        .filter(occurrence -> !occurrence.startTime().isBefore(now))
+                        .forEach(occurrence -> events.add(mapOccurrenceToCalendarEventResponse(occurrence)));
+                return events.stream()
+                        .sorted(Comparator.comparing(CalendarEventResponse::getStartTime))
+                        .limit(UPCOMING_EVENTS)
+                        .collect(Collectors.toList());
+            });
+            CompletableFuture<List<TimeTrackingResponse>> runningTimers = async(() ->
+                    timeTrackingRepository.findByUserIdAndTaskProjectIdAndEndTimeIsNull(userId, projectId).stream()
+                            .map(this::mapToTimeTrackingResponse)
+                            .collect(Collectors.toList()));
+
+            ProjectDashboardResponse response = new ProjectDashboardResponse();
+            response.setProject(project);
+            response.setMembers(members.join());
+            response.setTaskCounts(taskCounts.join());
+            response.setUpcomingEvents(upcomingEvents.join());
+            response.setRunningTimers(runningTimers.join());
+            return response;
+        } catch (CompletionException e) {
+            log.error("Error getting dashboard for project {}: {}", projectId, e.getMessage(), e);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (Exception e) {
+            log.error("Error getting dashboard for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnly(query), dashboardExecutor);
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private ProjectResponse mapToProjectResponse(Project project) {
+        ProjectResponse response = new ProjectResponse();
+        response.setId(project.getId());
+        response.setName(project.getName());
+        response.setDescription(project.getDescription());
+        response.setOwnerId(project.getOwnerId());
+        response.setCreatedAt(project.getCreatedAt());
+        response.setUpdatedAt(project.getUpdatedAt());
+        response.setMemberIds(new HashSet<>(project.getMemberIds()));
+        response.setAdminIds(new HashSet<>(project.getAdminIds()));
+        response.setStatus(project.getStatus());
+        return response;
+    }
+
+    private ProjectMemberResponse mapToProjectMemberResponse(ProjectMember member, Long projectId) {
+        ProjectMemberResponse response = new ProjectMemberResponse();
+        response.setId(member.getId());
+        response.setProjectId(projectId);
+        response.setUserId(member.getUserId());
+        response.setRole(member.getRole());
+        response.setJoinedAt(member.getJoinedAt());
+        response.setInvitedBy(member.getInvitedBy());
+        response.setInvitationAccepted(member.getInvitationAccepted());
+        return response;
+    }
+
+    private CalendarEventResponse mapToCalendarEventResponse(CalendarEvent event) {
+        CalendarEventResponse response = new CalendarEventResponse();
+        response.setId(event.getId());
+        response.setCalendarId(event.getCalendar().getId());
+        response.setTitle(event.getTitle());
+        response.setDescription(event.getDescription());
+        response.setEventType(event.getEventType());
+        response.setStartTime(event.getStartTime());
+        response.setEndTime(event.getEndTime());
+        response.setAllDay(event.getAllDay());
+        response.setLocation(event.getLocation());
+        response.setCreatedBy(event.getCreatedBy());
+        response.setCreatedAt(event.getCreatedAt());
+        response.setUpdatedAt(event.getUpdatedAt());
+        if (event.getTask() != null) {
+            response.setTaskId(event.getTask().getId());
+        }
+        response.setRecurrenceRule(event.getRecurrenceRule());
+        return response;
+    }
+
+    private CalendarEventResponse mapOccurrenceToCalendarEventResponse(CalendarOccurrenceService.Occurrence occurrence) {
+        CalendarEventView event = occurrence.event();
+        CalendarEventResponse response = new CalendarEventResponse();
+        response.setId(event.getId());
+        response.setCalendarId(event.getCalendarId());
+        response.setTitle(event.getTitle());
+        response.setDescription(event.getDescription());
+        response.setEventType(event.getEventType());
+        response.setStartTime(occurrence.startTime());
+        response.setEndTime(occurrence.endTime());
+        response.setAllDay(event.getAllDay());
+        response.setLocation(event.getLocation());
+        response.setCreatedBy(event.getCreatedBy());
+        response.setCreatedAt(event.getCreatedAt());
+        response.setUpdatedAt(event.getUpdatedAt());
+        response.setTaskId(event.getTaskId());
+        response.setRecurrenceRule(event.getRecurrenceRule());
+        response.setSeriesStartTime(event.getStartTime());
+        return response;
+    }
+
+    private TimeTrackingResponse mapToTimeTrackingResponse(TimeTracking timeTracking) {
+        TimeTrackingResponse response = new TimeTrackingResponse();
+        response.setId(timeTracking.getId());
+        response.setTaskId(timeTracking.getTask().getId());
+        response.setUserId(timeTracking.getUserId());
+        response.setStartTime(timeTracking.getStartTime());
+        response.setEndTime(timeTracking.getEndTime());
+        response.setDurationMinutes(timeTracking.getDurationMinutes());
+        response.setDurationSeconds(timeTracking.getDurationSeconds());
+        response.setDescription(timeTracking.getDescription());
+        response.setCreatedAt(timeTracking.getCreatedAt());
+        response.setUpdatedAt(timeTracking.getUpdatedAt());
+        return response;
+    }
+}
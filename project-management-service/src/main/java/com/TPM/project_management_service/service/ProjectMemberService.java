@@ -1,6 +1,8 @@
 package com.TPM.project_management_service.service;
 
-import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.client.UserSummaryResponse;
+import com.TPM.project_management_service.dto.PageResponse;
+import com.TPM.project_management_service.dto.ProjectMemberDetailsResponse;
 import com.TPM.project_management_service.dto.ProjectMemberRequest;
 import com.TPM.project_management_service.dto.ProjectMemberResponse;
 import com.TPM.project_management_service.exception.ProjectNotFoundException;
@@ -10,14 +12,17 @@ import com.TPM.project_management_service.model.ProjectMember;
 import com.TPM.project_management_service.model.ProjectRole;
 import com.TPM.project_management_service.repository.ProjectMemberRepository;
 import com.TPM.project_management_service.repository.ProjectRepository;
-import com.TPM.project_management_service.security.JwtValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,28 +32,18 @@ import java.util.stream.Collectors;
 public class ProjectMemberService {
     private final ProjectMemberRepository projectMemberRepository;
     private final ProjectRepository projectRepository;
-    private final UserServiceClient userServiceClient;
-    private final JwtValidator jwtValidator;
+    private final CurrentUserService currentUserService;
+    private final UserDirectoryService userDirectoryService;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Transactional
     public ProjectMemberResponse inviteMember(Long projectId, ProjectMemberRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Inviting member to project {} by user {}", projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -62,7 +57,7 @@ public class ProjectMemberService {
             }
             
             // Verify user exists
-            if (!userServiceClient.userExists(request.getUserId(), token)) {
+            if (!userDirectoryService.userExists(request.getUserId(), token)) {
                 throw new IllegalArgumentException("User does not exist: " + request.getUserId());
             }
             
@@ -93,24 +88,11 @@ public class ProjectMemberService {
     @Transactional
     public ProjectMemberResponse acceptInvitation(Long projectId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Accepting invitation to project {} by user {}", projectId, userProfile.getUser().getId());
             
             // Check if project exists
-            if (!projectRepository.existsById(projectId)) {
+            if (projectRepository.lockActiveShared(projectId).isEmpty()) {
                 throw new ProjectNotFoundException("Project not found with id: " + projectId);
             }
             
@@ -139,21 +121,10 @@ public class ProjectMemberService {
     @Transactional
     public void leaveProject(Long projectId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("User {} leaving project {}", userProfile.getUser().getId(), projectId);
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -179,23 +150,11 @@ public class ProjectMemberService {
     @Transactional
     public ProjectMemberResponse updateMemberRole(Long projectId, Integer userId, ProjectRole role, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Updating role for member {} in project {} to {} by user {}", 
                     userId, projectId, role, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -256,22 +215,10 @@ public class ProjectMemberService {
     @Transactional
     public void removeMember(Long projectId, Integer userId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Removing member {} from project {} by user {}", userId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -310,20 +257,7 @@ public class ProjectMemberService {
     
     public List<ProjectMemberResponse> getProjectMembers(Long projectId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting members for project {} by user {}", projectId, userProfile.getUser().getId());
             
             Project project = projectRepository.findById(projectId)
@@ -346,6 +280,39 @@ public class ProjectMemberService {
         }
     }
     
+    public PageResponse<ProjectMemberDetailsResponse> getProjectMemberDetails(Long projectId, int page, int size, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting member details page {} for project {} by user {}", page, projectId, userProfile.getUser().getId());
+            
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+            
+            // Check if user is a member of the project
+            Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+            if (memberOpt.isEmpty() && !project.getOwnerId().equals(userProfile.getUser().getId())) {
+                throw new UnauthorizedAccessException("User is not a member of this project");
+            }
+            
+            PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                    Sort.by("joinedAt").and(Sort.by("id")));
+            Page<ProjectMember> members = projectMemberRepository.findByProjectId(projectId, pageRequest);
+            
+            // One batched (and cached) lookup for the whole page instead of one call per member
+            Map<Integer, UserSummaryResponse> summaries = userDirectoryService.getUserSummaries(
+                    members.getContent().stream().map(ProjectMember::getUserId).collect(Collectors.toSet()), token);
+            
+            List<ProjectMemberDetailsResponse> content = members.getContent().stream()
+                    .map(member -> mapToProjectMemberDetailsResponse(member, summaries.get(member.getUserId())))
+                    .collect(Collectors.toList());
+            
+            return PageResponse.of(members, content);
+        } catch (Exception e) {
+            log.error("Error getting member details for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
     private ProjectMemberResponse mapToProjectMemberResponse(ProjectMember member) {
         ProjectMemberResponse response = new ProjectMemberResponse();
         response.setId(member.getId());
@@ -357,4 +324,23 @@ public class ProjectMemberService {
         response.setInvitationAccepted(member.getInvitationAccepted());
         return response;
     }
-}
+
+    private ProjectMemberDetailsResponse mapToProjectMemberDetailsResponse(ProjectMember member, UserSummaryResponse summary) {
+        ProjectMemberDetailsResponse response = new ProjectMemberDetailsResponse();
+        response.setId(member.getId());
+        response.setProjectId(member.getProject().getId());
+        response.setUserId(member.getUserId());
+        response.setRole(member.getRole());
+        response.setJoinedAt(member.getJoinedAt());
+        response.setInvitedBy(member.getInvitedBy());
+        response.setInvitationAccepted(member.getInvitationAccepted());
+        
+        if (summary != null) {
+            response.setDisplayName(summary.getDisplayName());
+            response.setPosition(summary.getPosition());
+            response.setProfileImageUrl(summary.getProfileImageUrl());
+        }
+        
+        return response;
+    }
+}
\ No newline at end of file
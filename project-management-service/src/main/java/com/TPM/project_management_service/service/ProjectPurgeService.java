@@ -0,0 +1,189 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.ProjectDeletionJob;
+import com.TPM.project_management_service.model.ProjectDeletionStatus;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.ProjectCalendarRepository;
+import com.TPM.project_management_service.repository.ProjectDeletionJobRepository;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import com.TPM.project_management_service.repository.TimeTrackingDailyRollupRepository;
+import com.TPM.project_management_service.repository.TimeTrackingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deletes a project's data in the background, child tables first, using bounded set-based
+ * DELETE statements. Every batch commits on its own, so no long transaction holds locks and
+ * progress is visible through the {@link ProjectDeletionJob} row. Steps only remove what is
+ * left, which makes an interrupted purge safe to resume.
+ * <p>
+ * Deletion jobs, daily rollups, AI plans and AI plan jobs refer to projects and tasks by plain
+ * ids rather than foreign keys, so a purge never waits on them: rollups are deleted here by
+ * project id, and the AI tables are cleaned up by their own sweeps.
+ */
+@Service
+@Slf4j
+public class ProjectPurgeService {
+    private final ProjectDeletionJobRepository projectDeletionJobRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectCalendarRepository projectCalendarRepository;
+    private final CalendarEventRepository calendarEventRepository;
+    private final TaskRepository taskRepository;
+    private final TimeTrackingRepository timeTrackingRepository;
+    private final TimeTrackingDailyRollupRepository timeTrackingDailyRollupRepository;
+    private final ActiveTimerRegistry activeTimerRegistry;
+    private final ProjectCalendarProvisioner projectCalendarProvisioner;
+    private final CalendarFeedService calendarFeedService;
+    private final TaskExecutor projectPurgeExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.project-deletion.batch-size:1000}")
+    private int batchSize;
+
+    public ProjectPurgeService(ProjectDeletionJobRepository projectDeletionJobRepository,
+                               ProjectRepository projectRepository,
+                               ProjectMemberRepository projectMemberRepository,
+                               ProjectCalendarRepository projectCalendarRepository,
+                               CalendarEventRepository calendarEventRepository,
+                               TaskRepository taskRepository,
+                               TimeTrackingRepository timeTrackingRepository,
+                               TimeTrackingDailyRollupRepository timeTrackingDailyRollupRepository,
+                               ActiveTimerRegistry activeTimerRegistry,
+                               ProjectCalendarProvisioner projectCalendarProvisioner,
+                               CalendarFeedService calendarFeedService,
+                               @Qualifier("projectPurgeExecutor") TaskExecutor projectPurgeExecutor,
+                               PlatformTransactionManager transactionManager) {
+        this.projectDeletionJobRepository = projectDeletionJobRepository;
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.projectCalendarRepository = projectCalendarRepository;
+        this.calendarEventRepository = calendarEventRepository;
+        this.taskRepository = taskRepository;
+        this.timeTrackingRepository = timeTrackingRepository;
+        this.timeTrackingDailyRollupRepository = timeTrackingDailyRollupRepository;
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.projectCalendarProvisioner = projectCalendarProvisioner;
+        this.calendarFeedService = calendarFeedService;
+        this.projectPurgeExecutor = projectPurgeExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a deletion job for a project that has already been hidden (status other than ACTIVE)
+     * and starts purging once the caller's transaction has committed.
+     */
+    @Transactional
+    public ProjectDeletionJob schedulePurge(Long projectId, Integer requestedBy) {
+        ProjectDeletionJob job = new ProjectDeletionJob();
+        job.setProjectId(projectId);
+        job.setRequestedBy(requestedBy);
+        job = projectDeletionJobRepository.save(job);
+
+        // Start purging only once the status change is committed and visible to the worker
+        Long jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(jobId);
+            }
+        });
+        return job;
+    }
+
+    public void submit(Long jobId) {
+        projectPurgeExecutor.execute(() -> purge(jobId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (ProjectDeletionJob job : projectDeletionJobRepository.findByStatusIn(
+                EnumSet.of(ProjectDeletionStatus.PENDING, ProjectDeletionStatus.RUNNING))) {
+            log.info("Resuming deletion job {} for project {}", job.getId(), job.getProjectId());
+            submit(job.getId());
+        }
+    }
+
+    private void purge(Long jobId) {
+        ProjectDeletionJob job = projectDeletionJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == ProjectDeletionStatus.COMPLETED) {
+            return;
+        }
+        Long projectId = job.getProjectId();
+        log.info("Purging project {} (job {})", projectId, jobId);
+
+        job.setStatus(ProjectDeletionStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setErrorMessage(null);
+        job = projectDeletionJobRepository.save(job);
+
+        try {
+            job = runStep(job, "time_tracking", true,
+                    limit -> timeTrackingRepository.deleteBatchByProjectId(projectId, limit));
+            activeTimerRegistry.forgetProject(projectId);
+            job = runStep(job, "time_tracking_daily_rollups", true,
+                    limit -> timeTrackingDailyRollupRepository.deleteBatchByProjectId(projectId, limit));
+            job = runStep(job, "calendar_events", true,
+                    limit -> calendarEventRepository.deleteBatchByProjectId(projectId, limit));
+            calendarFeedService.forget(projectId);
+            job = runStep(job, "subtask_links", false,
+                    limit -> taskRepository.detachSubtaskBatchByProjectId(projectId, limit));
+            job = runStep(job, "tasks", true,
+                    limit -> taskRepository.deleteBatchByProjectId(projectId, limit));
+            job = runStep(job, "project_members_roles", true,
+                    limit -> projectMemberRepository.deleteBatchByProjectId(projectId, limit));
+
+            job.setCurrentStep("project");
+            Integer deleted = transactionTemplate.execute(status ->
+                    projectCalendarRepository.deleteByProjectIdNative(projectId)
+                            + projectRepository.deleteLegacyMemberIds(projectId)
+                            + projectRepository.deleteLegacyAdminIds(projectId)
+                            + projectRepository.deleteProjectRow(projectId));
+            job.setDeletedRows(job.getDeletedRows() + (deleted != null ? deleted : 0));
+            projectCalendarProvisioner.forget(projectId);
+            // Again, in case a poll rendered the feed while the later steps ran
+            calendarFeedService.forget(projectId);
+
+            job.setStatus(ProjectDeletionStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            projectDeletionJobRepository.save(job);
+            log.info("Project {} purged, {} rows deleted (job {})", projectId, job.getDeletedRows(), jobId);
+        } catch (Exception e) {
+            log.error("Error purging project {} (job {}): {}", projectId, jobId, e.getMessage(), e);
+            job.setStatus(ProjectDeletionStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            job.setFinishedAt(LocalDateTime.now());
+            projectDeletionJobRepository.save(job);
+        }
+    }
+
+    private ProjectDeletionJob runStep(ProjectDeletionJob job, String step, boolean countRows, IntUnaryOperator batch) {
+        job.setCurrentStep(step);
+        int affected;
+        do {
+            Integer result = transactionTemplate.execute(status -> batch.applyAsInt(batchSize));
+            affected = result != null ? result : 0;
+            if (countRows) {
+                job.setDeletedRows(job.getDeletedRows() + affected);
+            }
+            job = projectDeletionJobRepository.save(job);
+        } while (affected > 0);
+        return job;
+    }
+}
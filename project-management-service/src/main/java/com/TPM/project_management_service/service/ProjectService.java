@@ -1,11 +1,14 @@
 package com.TPM.project_management_service.service;
 
-import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.dto.ProjectDeletionResponse;
 import com.TPM.project_management_service.dto.ProjectRequest;
 import com.TPM.project_management_service.dto.ProjectResponse;
 import com.TPM.project_management_service.exception.ProjectNotFoundException;
 import com.TPM.project_management_service.exception.UnauthorizedAccessException;
 import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectDeletionJob;
+import com.TPM.project_management_service.model.ProjectStatus;
+import com.TPM.project_management_service.repository.ProjectDeletionJobRepository;
 import com.TPM.project_management_service.repository.ProjectRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +25,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProjectService {
     private final ProjectRepository projectRepository;
-    private final UserServiceClient userServiceClient;
+    private final CurrentUserService currentUserService;
+    private final UserDirectoryService userDirectoryService;
+    private final ProjectDeletionJobRepository projectDeletionJobRepository;
+    private final ProjectPurgeService projectPurgeService;
+    private final ProjectArchiveService projectArchiveService;
+    private final ProjectCalendarProvisioner projectCalendarProvisioner;
 
     @Transactional
     public ProjectResponse createProject(ProjectRequest request, String token) {
@@ -33,10 +41,8 @@ public class ProjectService {
 
             // Verify user profile
             log.info("Attempting to get user profile");
-            var userProfile = userServiceClient.getUserProfile(token);
-            log.info("User profile retrieved successfully. User ID: {}, Email: {}",
-                    userProfile.getUser().getId(),
-                    userProfile.getUser().getEmail());
+            var userProfile = currentUserService.resolve(token);
+            log.info("User profile retrieved successfully. User ID: {}", userProfile.getUser().getId());
 
             // Create project entity
             log.info("Creating project entity");
@@ -61,6 +67,9 @@ public class ProjectService {
             Project savedProject = projectRepository.save(project);
             log.info("Project saved successfully with ID: {}", savedProject.getId());
 
+            // The calendar is created in the same transaction, so every project has one from the start
+            projectCalendarProvisioner.provision(savedProject);
+
             // Convert to response
             log.info("Converting project to response");
             return mapToResponse(savedProject);
@@ -73,14 +82,14 @@ public class ProjectService {
 
     public List<ProjectResponse> getAllProjectsForUser(String token) {
         try {
-            var userProfile = userServiceClient.getUserProfile(token);
-            log.info("Getting all projects for user in service layer: {}", userProfile.getUser().getEmail());
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting all projects for user in service layer: {}", userProfile.getUser().getId());
 
             List<Project> projects = projectRepository.findByOwnerId(userProfile.getUser().getId());
             projects.addAll(projectRepository.findByMemberIdsContaining(userProfile.getUser().getId()));
             projects.addAll(projectRepository.findByAdminIdsContaining(userProfile.getUser().getId()));
 
-            log.info("Found {} projects for user: {}", projects.size(), userProfile.getUser().getEmail());
+            log.info("Found {} projects for user: {}", projects.size(), userProfile.getUser().getId());
             return projects.stream()
                     .map(this::mapToResponse)
                     .collect(Collectors.toList());
@@ -92,14 +101,18 @@ public class ProjectService {
 
     public ProjectResponse getProjectById(Long id, String token) {
         try {
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting project by id in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
 
-            Project project = projectRepository.findById(id)
-                    .orElseThrow(() -> {
-                        log.error("Project not found with id: {}", id);
-                        return new ProjectNotFoundException("Project not found with id: " + id);
-                    });
+            Project project = projectRepository.findById(id).orElse(null);
+            if (project == null) {
+                // Archived projects are no longer in the hot tables but remain readable
+                return projectArchiveService.findArchivedProject(id, userProfile.getUser().getId())
+                        .orElseThrow(() -> {
+                            log.error("Project not found with id: {}", id);
+                            return new ProjectNotFoundException("Project not found with id: " + id);
+                        });
+            }
 
             if (!isUserAuthorized(project, userProfile.getUser().getId())) {
                 log.error("Unauthorized access attempt - userId: {}, projectId: {}", userProfile.getUser().getId(), id);
@@ -116,7 +129,7 @@ public class ProjectService {
     @Transactional
     public ProjectResponse updateProject(Long id, ProjectRequest request, String token) {
         try {
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Updating project in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
 
             Project project = projectRepository.findById(id)
@@ -137,7 +150,7 @@ public class ProjectService {
                 // Verify each member exists
                 for (Integer memberId : request.getMemberIds()) {
                     try {
-                        if (!userServiceClient.userExists(memberId, token)) {
+                        if (!userDirectoryService.userExists(memberId, token)) {
                             log.error("Member does not exist: {}", memberId);
                             throw new IllegalArgumentException("Member does not exist: " + memberId);
                         }
@@ -153,7 +166,7 @@ public class ProjectService {
                 // Verify each admin exists
                 for (Integer adminId : request.getAdminIds()) {
                     try {
-                        if (!userServiceClient.userExists(adminId, token)) {
+                        if (!userDirectoryService.userExists(adminId, token)) {
                             log.error("Admin does not exist: {}", adminId);
                             throw new IllegalArgumentException("Admin does not exist: " + adminId);
                         }
@@ -174,10 +187,14 @@ public class ProjectService {
         }
     }
 
+    /**
+     * Hides the project immediately and schedules the purge of its data on a background worker.
+     * The returned job can be polled through {@link #getDeletionStatus}.
+     */
     @Transactional
-    public void deleteProject(Long id, String token) {
+    public ProjectDeletionResponse deleteProject(Long id, String token) {
         try {
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Deleting project in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
 
             Project project = projectRepository.findById(id)
@@ -191,14 +208,37 @@ public class ProjectService {
                 throw new UnauthorizedAccessException("Only project owner can delete the project");
             }
 
-            projectRepository.delete(project);
-            log.info("Project deleted successfully - id: {}", id);
+            project.setStatus(ProjectStatus.DELETING);
+            projectRepository.save(project);
+
+            ProjectDeletionJob job = projectPurgeService.schedulePurge(id, userProfile.getUser().getId());
+            log.info("Project marked for deletion - id: {}, jobId: {}", id, job.getId());
+            return mapToDeletionResponse(job);
         } catch (Exception e) {
             log.error("Error deleting project: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    public ProjectDeletionResponse getDeletionStatus(Long id, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting deletion status in service layer - id: {}, userId: {}", id, userProfile.getUser().getId());
+
+            ProjectDeletionJob job = projectDeletionJobRepository.findTopByProjectIdOrderByIdDesc(id)
+                    .orElseThrow(() -> new ProjectNotFoundException("No deletion found for project with id: " + id));
+
+            if (!job.getRequestedBy().equals(userProfile.getUser().getId())) {
+                throw new UnauthorizedAccessException("Only the user who deleted the project can see its deletion status");
+            }
+
+            return mapToDeletionResponse(job);
+        } catch (Exception e) {
+            log.error("Error getting deletion status: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
     private boolean isUserAuthorized(Project project, Integer userId) {
         return project.getOwnerId().equals(userId) ||
                project.getMemberIds().contains(userId) ||
@@ -216,7 +256,22 @@ public class ProjectService {
         response.setUpdatedAt(project.getUpdatedAt());
         response.setMemberIds(project.getMemberIds());
         response.setAdminIds(project.getAdminIds());
+        response.setStatus(project.getStatus());
         log.info("Project mapped successfully. Response: {}", response);
         return response;
     }
+
+    private ProjectDeletionResponse mapToDeletionResponse(ProjectDeletionJob job) {
+        ProjectDeletionResponse response = new ProjectDeletionResponse();
+        response.setJobId(job.getId());
+        response.setProjectId(job.getProjectId());
+        response.setStatus(job.getStatus());
+        response.setCurrentStep(job.getCurrentStep());
+        response.setDeletedRows(job.getDeletedRows());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        return response;
+    }
 }
\ No newline at end of file
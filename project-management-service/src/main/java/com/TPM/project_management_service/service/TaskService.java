@@ -1,6 +1,5 @@
 package com.TPM.project_management_service.service;
 
-import com.TPM.project_management_service.client.UserServiceClient;
 import com.TPM.project_management_service.dto.AiTaskPlanResponse;
 import com.TPM.project_management_service.dto.TaskRequest;
 import com.TPM.project_management_service.dto.TaskResponse;
@@ -14,7 +13,6 @@ import com.TPM.project_management_service.model.Task;
 import com.TPM.project_management_service.repository.ProjectMemberRepository;
 import com.TPM.project_management_service.repository.ProjectRepository;
 import com.TPM.project_management_service.repository.TaskRepository;
-import com.TPM.project_management_service.security.JwtValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +22,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,29 +34,18 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
-    private final UserServiceClient userServiceClient;
-    private final JwtValidator jwtValidator;
-    private final AiTaskAssistantService aiTaskAssistantService;
+    private final CurrentUserService currentUserService;
+    private final UserDirectoryService userDirectoryService;
+    private final AiPlanJobService aiPlanJobService;
+    private final DeadlineEventSyncService deadlineEventSyncService;
 
     @Transactional
     public TaskResponse createTask(Long projectId, TaskRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Creating task in project {} by user {}", projectId, userProfile.getUser().getId());
 
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
 
@@ -79,7 +69,7 @@ public class TaskService {
             if (request.getAssigneeId() != null) {
                 // Verify assignee exists and is a member of the project
                 try {
-                    if (!userServiceClient.userExists(request.getAssigneeId(), token)) {
+                    if (!userDirectoryService.userExists(request.getAssigneeId(), token)) {
                         throw new IllegalArgumentException("Assignee does not exist: " + request.getAssigneeId());
                     }
                 } catch (Exception e) {
@@ -142,6 +132,10 @@ public class TaskService {
             task = taskRepository.save(task);
             log.info("Task created successfully with id: {}", task.getId());
 
+            if (task.getDeadline() != null) {
+                deadlineEventSyncService.taskChanged(task.getId());
+            }
+
             return mapToTaskResponse(task);
         } catch (Exception e) {
             log.error("Error creating task: {}", e.getMessage(), e);
@@ -151,20 +145,7 @@ public class TaskService {
 
     public List<TaskResponse> getAllTasksForProject(Long projectId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting all tasks for project {} by user {}", projectId, userProfile.getUser().getId());
 
             Project project = projectRepository.findById(projectId)
@@ -192,20 +173,7 @@ public class TaskService {
 
     public TaskResponse getTaskById(Long projectId, Long taskId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting task {} in project {} by user {}", taskId, projectId, userProfile.getUser().getId());
 
             Project project = projectRepository.findById(projectId)
@@ -235,22 +203,10 @@ public class TaskService {
     @Transactional
     public TaskResponse updateTask(Long projectId, Long taskId, TaskRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Updating task {} in project {} by user {}", taskId, projectId, userProfile.getUser().getId());
 
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
 
@@ -290,7 +246,7 @@ public class TaskService {
             if (request.getAssigneeId() != null) {
                 // Verify assignee exists and is a member of the project
                 try {
-                    if (!userServiceClient.userExists(request.getAssigneeId(), token)) {
+                    if (!userDirectoryService.userExists(request.getAssigneeId(), token)) {
                         throw new IllegalArgumentException("Assignee does not exist: " + request.getAssigneeId());
                     }
                 } catch (Exception e) {
@@ -362,6 +318,11 @@ public class TaskService {
             task = taskRepository.save(task);
             log.info("Task updated successfully with id: {}", task.getId());
 
+            // The deadline event carries the deadline and the title
+            if (request.getDeadline() != null || request.getTitle() != null) {
+                deadlineEventSyncService.taskChanged(task.getId());
+            }
+
             return mapToTaskResponseWithSubtasks(task);
         } catch (Exception e) {
             log.error("Error updating task {}: {}", taskId, e.getMessage(), e);
@@ -372,22 +333,10 @@ public class TaskService {
     @Transactional
     public void deleteTask(Long projectId, Long taskId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Deleting task {} in project {} by user {}", taskId, projectId, userProfile.getUser().getId());
 
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
 
@@ -414,6 +363,7 @@ public class TaskService {
                 throw new UnauthorizedAccessException("User is not authorized to delete this task");
             }
 
+            deadlineEventSyncService.removeForTaskTree(task.getId());
             taskRepository.delete(task);
             log.info("Task deleted successfully with id: {}", task.getId());
         } catch (Exception e) {
@@ -422,22 +372,13 @@ public class TaskService {
         }
     }
 
-    public AiTaskPlanResponse generateAiTaskPlan(Long projectId, Long taskId, String token) {
+    /**
+     * Checks access on the request thread, then generates the plan on aiPlanExecutor; the returned
+     * future completes with the plan, or with the error text when generation fails.
+     */
+    public CompletableFuture<AiTaskPlanResponse> generateAiTaskPlan(Long projectId, Long taskId, boolean regenerate, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Generating AI task plan for task {} in project {} by user {}", 
                      taskId, projectId, userProfile.getUser().getId());
 
@@ -458,14 +399,29 @@ public class TaskService {
                 throw new IllegalArgumentException("Task does not belong to the specified project");
             }
 
-            // Generate AI task plan using AiTaskAssistantService
-            String plan = aiTaskAssistantService.generateTaskPlan(task);
-            
-            return AiTaskPlanResponse.builder()
-                    .taskId(task.getId())
-                    .taskTitle(task.getTitle())
-                    .plan(plan)
-                    .build();
+            // Reuses the stored plan while the task is unchanged, unless a new one is requested
+            CompletableFuture<AiTaskPlanCache.Plan> plan;
+            try {
+                plan = aiPlanJobService.generatePlan(task.getId(), regenerate);
+            } catch (RejectedExecutionException e) {
+                log.warn("AI plan queue is full, refusing plan for task {}", taskId);
+                plan = CompletableFuture.failedFuture(new IllegalStateException("Too many AI plans are being generated; try again later"));
+            }
+            Long id = task.getId();
+            String title = task.getTitle();
+            return plan
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        log.error("Error generating AI task plan: {}", cause.getMessage(), cause);
+                        return new AiTaskPlanCache.Plan("Error generating AI task plan: " + cause.getMessage(), false, LocalDateTime.now());
+                    })
+                    .thenApply(generated -> AiTaskPlanResponse.builder()
+                            .taskId(id)
+                            .taskTitle(title)
+                            .plan(generated.plan())
+                            .cached(generated.cached())
+                            .generatedAt(generated.generatedAt())
+                            .build());
         } catch (Exception e) {
             log.error("Error generating AI task plan: {}", e.getMessage(), e);
             throw e;
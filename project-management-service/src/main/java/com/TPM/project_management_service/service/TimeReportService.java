@@ -0,0 +1,109 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.TimeReportResponse;
+import com.TPM.project_management_service.dto.TimeReportRow;
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.exception.UnauthorizedAccessException;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TimeTrackingDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Time reports read from the daily rollups, so their cost grows with the number of days in
+ * the range rather than with the number of time entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimeReportService {
+    private final TimeTrackingDailyRollupRepository rollupRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final CurrentUserService currentUserService;
+
+    public enum GroupBy { USER, TASK, WEEK }
+
+    @Transactional(readOnly = true)
+    public TimeReportResponse getReport(Long projectId, GroupBy groupBy, LocalDate from, LocalDate to, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            log.info("Getting time report by {} for project {} from {} to {} by user {}",
+                groupBy, projectId, from, to, userProfile.getUser().getId());
+            
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+            
+            // Check if user is a member of the project
+            Optional<ProjectMember> memberOpt = projectMemberRepository.findByProjectIdAndUserId(projectId, userProfile.getUser().getId());
+            if (memberOpt.isEmpty() && !project.getOwnerId().equals(userProfile.getUser().getId())) {
+                throw new UnauthorizedAccessException("User is not a member of this project");
+            }
+            
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+            // Both bounds are inclusive for callers; the queries take an exclusive upper bound
+            LocalDate toExclusive = to.plusDays(1);
+            
+            List<TimeReportRow> rows = switch (groupBy) {
+                case USER -> rollupRepository.sumByUser(projectId, from, toExclusive).stream()
+                        .map(row -> {
+                            TimeReportRow reportRow = mapToTimeReportRow(row);
+                            reportRow.setUserId((Integer) row[0]);
+                            return reportRow;
+                        })
+                        .collect(Collectors.toList());
+                case TASK -> rollupRepository.sumByTask(projectId, from, toExclusive).stream()
+                        .map(row -> {
+                            TimeReportRow reportRow = mapToTimeReportRow(row);
+                            reportRow.setTaskId((Long) row[0]);
+                            return reportRow;
+                        })
+                        .collect(Collectors.toList());
+                case WEEK -> rollupRepository.sumByWeek(projectId, from, toExclusive).stream()
+                        .map(row -> {
+                            TimeReportRow reportRow = mapToTimeReportRow(row);
+                            reportRow.setWeekStart(toLocalDate(row[0]));
+                            return reportRow;
+                        })
+                        .collect(Collectors.toList());
+            };
+            
+            TimeReportResponse response = new TimeReportResponse();
+            response.setProjectId(projectId);
+            response.setGroupBy(groupBy.name().toLowerCase());
+            response.setFrom(from);
+            response.setTo(to);
+            response.setTotalSeconds(rows.stream().mapToLong(TimeReportRow::getTotalSeconds).sum());
+            response.setRows(rows);
+            return response;
+        } catch (Exception e) {
+            log.error("Error getting time report for project {}: {}", projectId, e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    private TimeReportRow mapToTimeReportRow(Object[] row) {
+        TimeReportRow reportRow = new TimeReportRow();
+        long seconds = ((Number) row[1]).longValue();
+        reportRow.setTotalSeconds(seconds);
+        reportRow.setTotalMinutes(seconds / 60);
+        reportRow.setEntryCount(((Number) row[2]).longValue());
+        return reportRow;
+    }
+    
+    private LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
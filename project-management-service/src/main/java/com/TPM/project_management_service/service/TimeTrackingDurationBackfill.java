@@ -0,0 +1,66 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.repository.TimeTrackingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills duration_seconds and duration_minutes for stopped entries written before durations
+ * were maintained on insert. Runs in the background and walks the table once in id order, in
+ * committed batches that each cover the next window of ids, so no batch rescans rows an
+ * earlier one has passed. Once nothing is left, later restarts cost a single EXISTS query.
+ */
+@Service
+@Slf4j
+public class TimeTrackingDurationBackfill {
+    private final TimeTrackingRepository timeTrackingRepository;
+    private final TaskExecutor maintenanceExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.time-tracking.backfill-batch-size:5000}")
+    private int batchSize;
+
+    public TimeTrackingDurationBackfill(TimeTrackingRepository timeTrackingRepository,
+                                        @Qualifier("maintenanceExecutor") TaskExecutor maintenanceExecutor,
+                                        PlatformTransactionManager transactionManager) {
+        this.timeTrackingRepository = timeTrackingRepository;
+        this.maintenanceExecutor = maintenanceExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        maintenanceExecutor.execute(this::run);
+    }
+
+    private void run() {
+        try {
+            if (!timeTrackingRepository.existsMissingDuration()) {
+                return;
+            }
+            long total = 0;
+            long lastId = 0;
+            Long windowEnd;
+            while ((windowEnd = timeTrackingRepository.findIdWindowEnd(lastId, batchSize)) != null) {
+                long afterId = lastId;
+                long upToId = windowEnd;
+                Integer rows = transactionTemplate.execute(status ->
+                        timeTrackingRepository.backfillDurationRange(afterId, upToId));
+                total += rows != null ? rows : 0;
+                lastId = windowEnd;
+            }
+            if (total > 0) {
+                log.info("Backfilled durations for {} time tracking entries", total);
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling time tracking durations: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.dto.TimeTrackingBatchRequest;
+import com.TPM.project_management_service.dto.TimeTrackingBatchResponse;
+import com.TPM.project_management_service.model.TimeTracking;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores time entries recorded offline in one request. Tasks and project access are checked
+ * with one set-based query each, replays are filtered by the client's idempotency keys and
+ * the new rows go in through JDBC batches. Invalid entries are reported back and the rest of
+ * the upload is still stored.
+ */
+@Service
+@Slf4j
+public class TimeTrackingIngestService {
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int JDBC_BATCH_SIZE = 500;
+    private static final int KEY_SWEEP_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final TimeTrackingRollupService timeTrackingRollupService;
+    private final CurrentUserService currentUserService;
+    private final int maxEntries;
+    private final Duration keyRetention;
+
+    public TimeTrackingIngestService(JdbcTemplate jdbcTemplate,
+                                     TaskRepository taskRepository,
+                                     ProjectRepository projectRepository,
+                                     TimeTrackingRollupService timeTrackingRollupService,
+                                     CurrentUserService currentUserService,
+                                     @Value("${application.time-tracking.ingest-max-entries:5000}") int maxEntries,
+                                     @Value("${application.time-tracking.ingest-key-retention:30d}") Duration keyRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.timeTrackingRollupService = timeTrackingRollupService;
+        this.currentUserService = currentUserService;
+        this.maxEntries = maxEntries;
+        this.keyRetention = keyRetention;
+    }
+
+    /**
+     * Forgets idempotency keys older than the retention, in batches so the table is never locked
+     * for long. An upload replayed after that is stored again.
+     */
+    @Scheduled(cron = "${application.time-tracking.ingest-key-sweep-cron:0 0 4 * * *}")
+    public void sweepKeys() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(keyRetention);
+            int deleted = 0;
+            int batch;
+            do {
+                batch = jdbcTemplate.update("DELETE FROM time_tracking_ingest_keys WHERE id IN (" +
+                        "SELECT id FROM time_tracking_ingest_keys WHERE created_at < ? LIMIT ?)", cutoff, KEY_SWEEP_BATCH_SIZE);
+                deleted += batch;
+            } while (batch == KEY_SWEEP_BATCH_SIZE);
+            log.info("Removed {} time tracking ingest keys older than {}", deleted, keyRetention);
+        } catch (Exception e) {
+            log.error("Error removing expired time tracking ingest keys: {}", e.getMessage(), e);
+        }
+    }
+
+    @Transactional
+    public TimeTrackingBatchResponse ingest(TimeTrackingBatchRequest request, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            Integer userId = userProfile.getUser().getId();
+            List<TimeTrackingBatchRequest.Entry> entries = request.getEntries() != null ? request.getEntries() : List.of();
+            log.info("Ingesting {} time entries for user {}", entries.size(), userId);
+
+            if (entries.size() > maxEntries) {
+                throw new IllegalArgumentException("A batch may contain at most " + maxEntries + " entries");
+            }
+
+            TimeTrackingBatchResponse response = new TimeTrackingBatchResponse();
+            response.setReceived(entries.size());
+
+            // Shape checks first, so only well-formed entries reach the database
+            List<TimeTrackingBatchRequest.Entry> candidates = new ArrayList<>();
+            Set<String> seenKeys = new HashSet<>();
+            for (TimeTrackingBatchRequest.Entry entry : entries) {
+                String problem = validate(entry);
+                if (problem == null && !seenKeys.add(entry.getClientEntryId())) {
+                    response.setDuplicates(response.getDuplicates() + 1);
+                    continue;
+                }
+                if (problem != null) {
+                    response.getRejected().add(new TimeTrackingBatchResponse.RejectedEntry(entry.getClientEntryId(), problem));
+                    continue;
+                }
+                candidates.add(entry);
+            }
+
+            // One query resolves every task's project, one more checks the user's access to all of them
+            Set<Long> taskIds = candidates.stream().map(TimeTrackingBatchRequest.Entry::getTaskId).collect(Collectors.toSet());
+            Map<Long, Long> projectByTask = new HashMap<>();
+            if (!taskIds.isEmpty()) {
+                for (Object[] row : taskRepository.findProjectIdsByTaskIds(taskIds)) {
+                    projectByTask.put((Long) row[0], (Long) row[1]);
+                }
+            }
+            Set<Long> accessibleProjects = Set.of();
+            if (!projectByTask.isEmpty()) {
+                // Only projects still active once locked take entries
+                List<Long> activeProjects = projectRepository.lockAllActiveShared(new HashSet<>(projectByTask.values()));
+                accessibleProjects = activeProjects.isEmpty() ? Set.of()
+                        : new HashSet<>(projectRepository.findAccessibleProjectIds(activeProjects, userId));
+            }
+
+            List<TimeTrackingBatchRequest.Entry> valid = new ArrayList<>();
+            for (TimeTrackingBatchRequest.Entry entry : candidates) {
+                Long projectId = projectByTask.get(entry.getTaskId());
+                if (projectId == null) {
+                    response.getRejected().add(new TimeTrackingBatchResponse.RejectedEntry(entry.getClientEntryId(),
+                            "Task not found with id: " + entry.getTaskId()));
+                } else if (!accessibleProjects.contains(projectId)) {
+                    response.getRejected().add(new TimeTrackingBatchResponse.RejectedEntry(entry.getClientEntryId(),
+                            "User is not a member of the task's project"));
+                } else {
+                    valid.add(entry);
+                }
+            }
+
+            // Claiming the keys tells which entries are new; replays of earlier uploads claim nothing
+            Set<String> newKeys = valid.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                    "INSERT INTO time_tracking_ingest_keys (user_id, client_key, created_at) " +
+                    "SELECT ?, k, now() FROM unnest(CAST(? AS text[])) AS k " +
+                    "ON CONFLICT (user_id, client_key) DO NOTHING RETURNING client_key",
+                    String.class, userId, valid.stream().map(TimeTrackingBatchRequest.Entry::getClientEntryId).toArray(String[]::new)));
+            List<TimeTrackingBatchRequest.Entry> toInsert = valid.stream()
+                    .filter(entry -> newKeys.contains(entry.getClientEntryId()))
+                    .collect(Collectors.toList());
+            response.setDuplicates(response.getDuplicates() + valid.size() - toInsert.size());
+
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO time_tracking (task_id, user_id, start_time, end_time, duration_minutes, duration_seconds, " +
+                    "description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    toInsert, JDBC_BATCH_SIZE, (ps, entry) -> {
+                        // Same duration rules as TimeTracking's entity callbacks
+                        long seconds = TimeTracking.secondsBetween(entry.getStartTime(), entry.getEndTime());
+                        ps.setLong(1, entry.getTaskId());
+                        ps.setInt(2, userId);
+                        ps.setObject(3, entry.getStartTime());
+                        ps.setObject(4, entry.getEndTime());
+                        ps.setInt(5, (int) (seconds / 60));
+                        ps.setLong(6, seconds);
+                        ps.setString(7, entry.getDescription());
+                        ps.setObject(8, now);
+                    });
+
+            timeTrackingRollupService.addEntries(toInsert.stream()
+                    .map(entry -> new TimeTrackingRollupService.EntrySpan(projectByTask.get(entry.getTaskId()),
+                            entry.getTaskId(), userId, entry.getStartTime(), entry.getEndTime()))
+                    .collect(Collectors.toList()));
+
+            response.setAccepted(toInsert.size());
+            log.info("Ingested {} time entries for user {} ({} duplicates, {} rejected)",
+                response.getAccepted(), userId, response.getDuplicates(), response.getRejected().size());
+            return response;
+        } catch (Exception e) {
+            log.error("Error ingesting time entries: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private String validate(TimeTrackingBatchRequest.Entry entry) {
+        if (entry.getClientEntryId() == null || entry.getClientEntryId().isBlank()) {
+            return "clientEntryId is required";
+        }
+        if (entry.getClientEntryId().length() > MAX_KEY_LENGTH) {
+            return "clientEntryId must be at most " + MAX_KEY_LENGTH + " characters";
+        }
+        if (entry.getTaskId() == null) {
+            return "taskId is required";
+        }
+        if (entry.getStartTime() == null || entry.getEndTime() == null) {
+            return "startTime and endTime are required";
+        }
+        if (entry.getEndTime().isBefore(entry.getStartTime())) {
+            return "endTime must not be before startTime";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.TPM.project_management_service.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps time_tracking range-partitioned by start_time month (PostgreSQL declarative
+ * partitioning). On startup a plain table left by schema auto-update is converted once; after
+ * that partitions are created ahead of time and, when a retention is configured, old months are
+ * detached and moved to the time_tracking_archive schema. Rollups keep their totals.
+ * <p>
+ * The primary key becomes (id, start_time), as PostgreSQL requires the partition key in every
+ * unique constraint, and indexes are declared on the parent so every partition gets them.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(prefix = "application.time-tracking.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TimeTrackingPartitionService {
+    private static final String TABLE = "time_tracking";
+    private static final String DEFAULT_PARTITION = "time_tracking_default";
+    private static final String ARCHIVE_SCHEMA = "time_tracking_archive";
+    private static final String ID_SEQUENCE = "time_tracking_partitioned_id_seq";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public TimeTrackingPartitionService(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${application.time-tracking.partitioning.months-ahead:3}") int monthsAhead,
+                                        @Value("${application.time-tracking.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @PostConstruct
+    public void init() {
+        String relkind = jdbcTemplate.queryForObject(
+                "SELECT (SELECT relkind FROM pg_class WHERE oid = to_regclass(?))::text", String.class, TABLE);
+        if (relkind == null) {
+            log.warn("Table {} does not exist, skipping partitioning", TABLE);
+            return;
+        }
+        if (!"p".equals(relkind)) {
+            transactionTemplate.executeWithoutResult(status -> convertToPartitioned());
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${application.time-tracking.partitioning.maintenance-cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        try {
+            YearMonth current = YearMonth.now();
+            for (int i = -1; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                transactionTemplate.executeWithoutResult(status -> ensurePartition(month));
+            }
+            if (retentionMonths > 0) {
+                archivePartitionsBefore(current.minusMonths(retentionMonths));
+            }
+        } catch (Exception e) {
+            log.error("Error maintaining {} partitions: {}", TABLE, e.getMessage(), e);
+        }
+    }
+
+    private void convertToPartitioned() {
+        // Another instance starting at the same time may have converted the table since relkind was read;
+        // the lock queues the instances, and the table is checked again once it is held
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(7303, 0)", Integer.class);
+        String relkind = jdbcTemplate.queryForObject(
+                "SELECT (SELECT relkind FROM pg_class WHERE oid = to_regclass(?))::text", String.class, TABLE);
+        if (relkind == null || "p".equals(relkind)) {
+            return;
+        }
+        log.info("Converting {} to a table partitioned by start_time month", TABLE);
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO time_tracking_legacy");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE time_tracking_legacy INCLUDING DEFAULTS) " +
+                "PARTITION BY RANGE (start_time)");
+        // Identity columns are not available on partitioned tables, so ids come from a plain sequence
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+        List<LocalDate> months = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(date_trunc('month', start_time) AS date) FROM time_tracking_legacy", LocalDate.class);
+        for (LocalDate month : months) {
+            createPartition(YearMonth.from(month));
+        }
+
+        int copied = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM time_tracking_legacy");
+        jdbcTemplate.queryForObject("SELECT setval('" + ID_SEQUENCE + "', " +
+                "COALESCE((SELECT MAX(id) FROM time_tracking_legacy), 0) + 1, false)", Long.class);
+        jdbcTemplate.execute("DROP TABLE time_tracking_legacy");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT time_tracking_pkey PRIMARY KEY (id, start_time)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT fk_time_tracking_task " +
+                "FOREIGN KEY (task_id) REFERENCES tasks (id)");
+        jdbcTemplate.execute("CREATE INDEX idx_time_tracking_user_start ON " + TABLE + " (user_id, start_time DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX idx_time_tracking_task ON " + TABLE + " (task_id)");
+        log.info("{} partitioned, {} rows in {} monthly partitions", TABLE, copied, months.size());
+    }
+
+    private void ensurePartition(YearMonth month) {
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(month))) {
+            return;
+        }
+        Boolean strayRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE start_time >= ? AND start_time < ?)",
+                Boolean.class, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        if (!Boolean.TRUE.equals(strayRows)) {
+            createPartition(month);
+            return;
+        }
+        // Rows already landed in the default partition; PostgreSQL refuses the new range until they move out
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+        createPartition(month);
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE start_time >= ? AND start_time < ? RETURNING *) INSERT INTO " + TABLE + " SELECT * FROM moved",
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        log.info("Moved {} rows from {} into {}", moved, DEFAULT_PARTITION, partitionName(month));
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void archivePartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?) AND c.relname ~ '^time_tracking_p[0-9]{6}$' ORDER BY c.relname",
+                String.class, TABLE);
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring("time_tracking_p".length()), SUFFIX);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                // Archived rows must not keep tasks and projects from being deleted
+                for (String constraint : jdbcTemplate.queryForList(
+                        "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+                        String.class, partition)) {
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT " + constraint);
+                }
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            });
+            log.info("Archived partition {} to schema {}", partition, ARCHIVE_SCHEMA);
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return "time_tracking_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,157 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.TimeTracking;
+import com.TPM.project_management_service.repository.TimeTrackingDailyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps {@link com.TPM.project_management_service.model.TimeTrackingDailyRollup} rows in step
+ * with stopped time entries. Deltas are applied inside the caller's transaction, so a rollup
+ * changes exactly when the entry change commits.
+ */
+@Service
+@Slf4j
+public class TimeTrackingRollupService {
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private final TimeTrackingDailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor maintenanceExecutor;
+
+    public TimeTrackingRollupService(TimeTrackingDailyRollupRepository rollupRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("maintenanceExecutor") TaskExecutor maintenanceExecutor) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceExecutor = maintenanceExecutor;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addEntry(Long projectId, TimeTracking timeTracking) {
+        rollupRepository.lockShared(projectId);
+        apply(projectId, timeTracking, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeEntry(Long projectId, TimeTracking timeTracking) {
+        rollupRepository.lockShared(projectId);
+        apply(projectId, timeTracking, -1);
+        rollupRepository.deleteEmpty(projectId, timeTracking.getTask().getId(), timeTracking.getUserId());
+    }
+
+    // Scans every project, so it runs on the maintenance thread, not the startup thread
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        maintenanceExecutor.execute(this::rebuildMissing);
+    }
+
+    /**
+     * Builds rollups for projects whose entries predate them, one project per transaction. Each
+     * project is rebuilt under its exclusive lock, which waits for in-flight incremental updates of
+     * that project and holds off new ones; other projects are not blocked. The rebuild overwrites
+     * whatever incremental updates wrote in the meantime with totals recomputed from all entries,
+     * and marks the project, so an interrupted pass resumes where it stopped on the next start.
+     */
+    public void rebuildMissing() {
+        try {
+            long lastId = 0;
+            int projects = 0;
+            int rows = 0;
+            while (true) {
+                List<Long> batch = rollupRepository.findProjectsWithoutRollups(lastId, REBUILD_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Long projectId : batch) {
+                    Integer built = transactionTemplate.execute(status -> {
+                        rollupRepository.lockExclusive(projectId);
+                        int built = rollupRepository.rebuildProject(projectId);
+                        rollupRepository.markRollupsBuilt(projectId);
+                        return built;
+                    });
+                    if (built != null && built > 0) {
+                        projects++;
+                        rows += built;
+                    }
+                }
+                lastId = batch.get(batch.size() - 1);
+            }
+            if (projects > 0) {
+                log.info("Built {} daily time tracking rollups for {} projects from existing entries", rows, projects);
+            }
+        } catch (Exception e) {
+            log.error("Error building time tracking rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds many stopped entries at once, e.g. from a bulk import. Deltas are summed per
+     * rollup row first, so each touched day is written once however many entries it holds.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addEntries(Collection<EntrySpan> entries) {
+        // In id order, so two imports touching the same projects cannot deadlock
+        new TreeSet<>(entries.stream().map(EntrySpan::projectId).toList()).forEach(rollupRepository::lockShared);
+        Map<RollupKey, long[]> deltas = new HashMap<>();
+        for (EntrySpan entry : entries) {
+            forEachDay(entry.startTime(), entry.endTime(), (day, seconds) -> {
+                long[] delta = deltas.computeIfAbsent(
+                        new RollupKey(entry.projectId(), entry.taskId(), entry.userId(), day), key -> new long[2]);
+                delta[0] += seconds;
+                // An entry spanning midnight counts once, on its start day
+                if (day.equals(entry.startTime().toLocalDate())) {
+                    delta[1]++;
+                }
+            });
+        }
+        deltas.forEach((key, delta) -> rollupRepository.addToDay(
+                key.projectId(), key.taskId(), key.userId(), key.day(), delta[0], (int) delta[1]));
+    }
+
+    public record EntrySpan(Long projectId, Long taskId, Integer userId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    private record RollupKey(Long projectId, Long taskId, Integer userId, LocalDate day) {
+    }
+
+    private void apply(Long projectId, TimeTracking timeTracking, int sign) {
+        LocalDate startDay = timeTracking.getStartTime() != null ? timeTracking.getStartTime().toLocalDate() : null;
+        forEachDay(timeTracking.getStartTime(), timeTracking.getEndTime(), (day, seconds) ->
+                rollupRepository.addToDay(projectId, timeTracking.getTask().getId(), timeTracking.getUserId(), day,
+                        sign * seconds, day.equals(startDay) ? sign : 0));
+    }
+
+    private void forEachDay(LocalDateTime start, LocalDateTime end, BiConsumer<LocalDate, Long> action) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            return;
+        }
+        // Split at midnight so each day only carries the time actually spent on it
+        LocalDate day = start.toLocalDate();
+        while (day.atStartOfDay().isBefore(end)) {
+            LocalDateTime from = start.isAfter(day.atStartOfDay()) ? start : day.atStartOfDay();
+            LocalDateTime to = end.isBefore(day.plusDays(1).atStartOfDay()) ? end : day.plusDays(1).atStartOfDay();
+            // Whole seconds, truncated per day; rebuildProject floors the same way
+            action.accept(day, Duration.between(from, to).getSeconds());
+            day = day.plusDays(1);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.TPM.project_management_service.service;
 
-import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.dto.ActiveTimerResponse;
+import com.TPM.project_management_service.dto.CursorPageResponse;
 import com.TPM.project_management_service.dto.TimeTrackingRequest;
 import com.TPM.project_management_service.dto.TimeTrackingResponse;
 import com.TPM.project_management_service.exception.ProjectNotFoundException;
 import com.TPM.project_management_service.exception.TaskNotFoundException;
+import com.TPM.project_management_service.exception.TimerAlreadyRunningException;
 import com.TPM.project_management_service.exception.UnauthorizedAccessException;
 import com.TPM.project_management_service.model.Project;
 import com.TPM.project_management_service.model.ProjectMember;
@@ -15,13 +17,15 @@ import com.TPM.project_management_service.repository.ProjectMemberRepository;
 import com.TPM.project_management_service.repository.ProjectRepository;
 import com.TPM.project_management_service.repository.TaskRepository;
 import com.TPM.project_management_service.repository.TimeTrackingRepository;
-import com.TPM.project_management_service.security.JwtValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -34,28 +38,22 @@ public class TimeTrackingService {
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
-    private final UserServiceClient userServiceClient;
-    private final JwtValidator jwtValidator;
+    private final CurrentUserService currentUserService;
+    private final TimeTrackingRollupService timeTrackingRollupService;
+    private final ActiveTimerRegistry activeTimerRegistry;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    // Open-ended ranges are bounded by literals so the query keeps a single plan on the index
+    private static final LocalDateTime RANGE_MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_MAX = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     @Transactional
     public TimeTrackingResponse startTimeTracking(Long projectId, Long taskId, TimeTrackingRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Starting time tracking for task {} in project {} by user {}", taskId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -73,6 +71,13 @@ public class TimeTrackingService {
                 throw new IllegalArgumentException("Task does not belong to this project");
             }
             
+            // A user runs at most one timer at a time; the lock makes the check hold across instances
+            timeTrackingRepository.lockUserTimers(userProfile.getUser().getId());
+            timeTrackingRepository.findRunningIdByUserId(userProfile.getUser().getId()).ifPresent(runningId -> {
+                throw new TimerAlreadyRunningException("User already has a running timer with id: " + runningId);
+            });
+            activeTimerRegistry.reserve(userProfile.getUser().getId());
+            
             TimeTracking timeTracking = new TimeTracking();
             timeTracking.setTask(task);
             timeTracking.setUserId(userProfile.getUser().getId());
@@ -80,6 +85,7 @@ public class TimeTrackingService {
             timeTracking.setDescription(request.getDescription());
             
             timeTracking = timeTrackingRepository.save(timeTracking);
+            activeTimerRegistry.registerStarted(timeTracking);
             log.info("Time tracking started successfully with id: {}", timeTracking.getId());
             
             return mapToTimeTrackingResponse(timeTracking);
@@ -92,23 +98,11 @@ public class TimeTrackingService {
     @Transactional
     public TimeTrackingResponse stopTimeTracking(Long projectId, Long taskId, Long timeTrackingId, TimeTrackingRequest request, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Stopping time tracking {} for task {} in project {} by user {}", 
                 timeTrackingId, taskId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -151,6 +145,8 @@ public class TimeTrackingService {
             }
             
             timeTracking = timeTrackingRepository.save(timeTracking);
+            timeTrackingRollupService.addEntry(projectId, timeTracking);
+            activeTimerRegistry.registerStopped(timeTracking.getUserId(), timeTracking.getId());
             log.info("Time tracking stopped successfully with id: {}", timeTracking.getId());
             
             return mapToTimeTrackingResponse(timeTracking);
@@ -160,22 +156,47 @@ public class TimeTrackingService {
         }
     }
     
-    public List<TimeTrackingResponse> getTimeTrackingsForTask(Long projectId, Long taskId, String token) {
+    public Optional<ActiveTimerResponse> getRunningTimer(String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
+            var userProfile = currentUserService.resolve(token);
             
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            // Served from memory only; this endpoint is polled constantly
+            return activeTimerRegistry.getRunning(userProfile.getUser().getId());
+        } catch (Exception e) {
+            log.error("Error getting running timer: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Stops a timer on behalf of the idle sweeper. Does nothing if the entry has been stopped
+     * or deleted in the meantime.
+     */
+    @Transactional
+    public void stopIdleTimeTracking(Integer userId, Long timeTrackingId, LocalDateTime endTime) {
+        Optional<TimeTracking> timeTrackingOpt = timeTrackingRepository.findById(timeTrackingId);
+        if (timeTrackingOpt.isEmpty() || timeTrackingOpt.get().getEndTime() != null) {
+            log.warn("Idle time tracking {} is no longer running", timeTrackingId);
+            activeTimerRegistry.registerStopped(userId, timeTrackingId);
+            return;
+        }
+        
+        TimeTracking timeTracking = timeTrackingOpt.get();
+        if (projectRepository.lockActiveShared(timeTracking.getTask().getProject().getId()).isEmpty()) {
+            log.warn("Project of idle time tracking {} is no longer active", timeTrackingId);
+            activeTimerRegistry.registerStopped(userId, timeTrackingId);
+            return;
+        }
+        timeTracking.setEndTime(endTime);
+        timeTracking = timeTrackingRepository.save(timeTracking);
+        timeTrackingRollupService.addEntry(timeTracking.getTask().getProject().getId(), timeTracking);
+        activeTimerRegistry.registerStopped(timeTracking.getUserId(), timeTracking.getId());
+        log.info("Idle time tracking {} of user {} stopped automatically at {}", timeTrackingId, timeTracking.getUserId(), endTime);
+    }
+    
+    public List<TimeTrackingResponse> getTimeTrackingsForTask(Long projectId, Long taskId, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting time trackings for task {} in project {} by user {}", 
                 taskId, projectId, userProfile.getUser().getId());
             
@@ -207,22 +228,11 @@ public class TimeTrackingService {
         }
     }
     
-    public List<TimeTrackingResponse> getTimeTrackingsForUser(Long projectId, String token) {
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TimeTrackingResponse> getTimeTrackingsForUser(Long projectId, LocalDateTime from, LocalDateTime to,
+                                                                            String cursor, int size, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Getting time trackings for user {} in project {}", userProfile.getUser().getId(), projectId);
             
             Project project = projectRepository.findById(projectId)
@@ -234,43 +244,69 @@ public class TimeTrackingService {
                 throw new UnauthorizedAccessException("User is not a member of this project");
             }
             
-            // Get all tasks for the project
-            List<Task> projectTasks = taskRepository.findByProjectId(projectId);
+            LocalDateTime rangeStart = from != null ? from : RANGE_MIN;
+            LocalDateTime rangeEnd = to != null ? to : RANGE_MAX;
+            if (!rangeStart.isBefore(rangeEnd)) {
+                throw new IllegalArgumentException("'from' must be before 'to'");
+            }
+            int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            // One extra row tells whether another page exists without a count query
+            PageRequest limit = PageRequest.of(0, pageSize + 1);
+            
+            List<TimeTracking> timeTrackings;
+            if (cursor == null || cursor.isBlank()) {
+                timeTrackings = timeTrackingRepository.findUserPageInProject(
+                        userProfile.getUser().getId(), projectId, rangeStart, rangeEnd, limit);
+            } else {
+                TimeTrackingCursor position = TimeTrackingCursor.decode(cursor);
+                timeTrackings = timeTrackingRepository.findUserPageInProjectAfter(
+                        userProfile.getUser().getId(), projectId, rangeStart, rangeEnd,
+                        position.startTime(), position.id(), limit);
+            }
             
-            // Get time trackings for the user across all project tasks
-            List<TimeTracking> timeTrackings = timeTrackingRepository.findByUserId(userProfile.getUser().getId())
-                    .stream()
-                    .filter(tt -> projectTasks.stream().anyMatch(task -> task.getId().equals(tt.getTask().getId())))
-                    .collect(Collectors.toList());
+            String nextCursor = null;
+            if (timeTrackings.size() > pageSize) {
+                timeTrackings = timeTrackings.subList(0, pageSize);
+                TimeTracking last = timeTrackings.get(pageSize - 1);
+                nextCursor = new TimeTrackingCursor(last.getStartTime(), last.getId()).encode();
+            }
             
-            return timeTrackings.stream()
+            List<TimeTrackingResponse> content = timeTrackings.stream()
                     .map(this::mapToTimeTrackingResponse)
                     .collect(Collectors.toList());
+            return new CursorPageResponse<>(content, pageSize, nextCursor);
         } catch (Exception e) {
             log.error("Error getting time trackings for user in project {}: {}", projectId, e.getMessage(), e);
             throw e;
         }
     }
     
+    /**
+     * Keyset position of the last entry on a page, serialised as base64url("startTime|id").
+     */
+    private record TimeTrackingCursor(LocalDateTime startTime, Long id) {
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static TimeTrackingCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                return new TimeTrackingCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+    
     @Transactional
     public void deleteTimeTracking(Long projectId, Long taskId, Long timeTrackingId, String token) {
         try {
-            // Validate JWT token with fallback mechanism
-            try {
-                if (!jwtValidator.validateToken(token)) {
-                    log.error("Invalid JWT token provided");
-                    throw new UnauthorizedAccessException("Invalid or expired token");
-                }
-            } catch (Exception e) {
-                // If JWT validation fails due to signature mismatch, continue with external validation
-                // This is needed when secret keys are different between services
-                log.warn("Local JWT validation failed: {}. Continuing with user-auth service validation.", e.getMessage());
-            }
-            
-            // The user-auth service will also validate the token when calling getUserProfile
-            var userProfile = userServiceClient.getUserProfile(token);
+            var userProfile = currentUserService.resolve(token);
             log.info("Deleting time tracking {} for task {} in project {} by user {}", timeTrackingId, taskId, projectId, userProfile.getUser().getId());
             
+            projectRepository.lockActiveShared(projectId);
             Project project = projectRepository.findById(projectId)
                     .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
             
@@ -305,7 +341,9 @@ public class TimeTrackingService {
                 throw new UnauthorizedAccessException("User is not authorized to delete this time tracking");
             }
             
+            timeTrackingRollupService.removeEntry(projectId, timeTracking);
             timeTrackingRepository.delete(timeTracking);
+            activeTimerRegistry.registerStopped(timeTracking.getUserId(), timeTracking.getId());
             log.info("Time tracking deleted successfully with id: {}", timeTracking.getId());
         } catch (Exception e) {
             log.error("Error deleting time tracking {}: {}", timeTrackingId, e.getMessage(), e);
@@ -321,6 +359,7 @@ public class TimeTrackingService {
         response.setStartTime(timeTracking.getStartTime());
         response.setEndTime(timeTracking.getEndTime());
         response.setDurationMinutes(timeTracking.getDurationMinutes());
+        response.setDurationSeconds(timeTracking.getDurationSeconds());
         response.setDescription(timeTracking.getDescription());
         response.setCreatedAt(timeTracking.getCreatedAt());
         response.setUpdatedAt(timeTracking.getUpdatedAt());
@@ -0,0 +1,213 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.exception.ProjectNotFoundException;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams time entries straight from a forward-only JDBC cursor to the response, one row at a
+ * time, so memory use does not depend on the size of the export. The caller sees entries of
+ * projects they own or administer, plus their own entries anywhere.
+ */
+@Service
+@Slf4j
+public class TimesheetExportService {
+    private static final String[] COLUMNS = {"id", "projectId", "projectName", "taskId", "taskTitle", "userId",
+            "startTime", "endTime", "durationMinutes", "durationSeconds", "description"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProjectRepository projectRepository;
+    private final CurrentUserService currentUserService;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TimesheetExportService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ProjectRepository projectRepository,
+                                  CurrentUserService currentUserService,
+                                  @Value("${application.time-tracking.export-fetch-size:1000}") int fetchSize) {
+        // A dedicated template: the fetch size only streams inside a transaction, which the export always opens
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.projectRepository = projectRepository;
+        this.currentUserService = currentUserService;
+    }
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Authorizes the caller up front, then returns a body that runs the query while the
+     * response is written.
+     */
+    public StreamingResponseBody exportTimesheet(Format format, LocalDate from, LocalDate to, Long projectId,
+                                                 Integer userId, boolean gzip, String token) {
+        try {
+            var userProfile = currentUserService.resolve(token);
+            Integer callerId = userProfile.getUser().getId();
+            log.info("Exporting timesheet as {} from {} to {} (project {}, user {}) by user {}",
+                format, from, to, projectId, userId, callerId);
+            
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+            if (projectId != null && !projectRepository.existsById(projectId)) {
+                throw new ProjectNotFoundException("Project not found with id: " + projectId);
+            }
+            
+            StringBuilder sql = new StringBuilder(
+                    "SELECT tt.id, t.project_id, p.name, tt.task_id, t.title, tt.user_id, " +
+                    "tt.start_time, tt.end_time, tt.duration_minutes, tt.duration_seconds, tt.description " +
+                    "FROM time_tracking tt " +
+                    "JOIN tasks t ON t.id = tt.task_id " +
+                    "JOIN projects p ON p.id = t.project_id " +
+                    "WHERE tt.start_time >= ? AND tt.start_time < ? AND p.status = 'ACTIVE' " +
+                    "AND (tt.user_id = ? OR p.owner_id = ? OR EXISTS (SELECT 1 FROM project_members_roles m " +
+                    "WHERE m.project_id = p.id AND m.user_id = ? AND m.role = 'ADMIN'))");
+            List<Object> params = new ArrayList<>(List.of(from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                    callerId, callerId, callerId));
+            if (projectId != null) {
+                sql.append(" AND t.project_id = ?");
+                params.add(projectId);
+            }
+            if (userId != null) {
+                sql.append(" AND tt.user_id = ?");
+                params.add(userId);
+            }
+            sql.append(" ORDER BY tt.start_time, tt.id");
+            
+            return outputStream -> {
+                // Closing the writer finishes the gzip trailer and frees its deflater even when the
+                // query fails; the response stream itself is left to the container
+                OutputStream response = StreamUtils.nonClosing(outputStream);
+                OutputStream target = gzip ? new GZIPOutputStream(response, 8192) : response;
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8))) {
+                    RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                    rowWriter.writeHeader();
+                    readOnlyTransaction.executeWithoutResult(status ->
+                            jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                                try {
+                                    rowWriter.writeRow(rs);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }, params.toArray()));
+                }
+            };
+        } catch (Exception e) {
+            log.error("Error exporting timesheet: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet rs) throws IOException, SQLException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException, SQLException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value != null) {
+                    writeEscaped(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = jsonFactory.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Rows are separated by newlines written below, not by the default space
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                Object value = rs.getObject(i);
+                generator.writeFieldName(COLUMNS[i - 1]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
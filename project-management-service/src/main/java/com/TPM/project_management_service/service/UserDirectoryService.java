@@ -0,0 +1,176 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.client.UserSummaryResponse;
+import com.TPM.project_management_service.dto.UserChangeEvent;
+import com.TPM.project_management_service.model.DirectoryUser;
+import com.TPM.project_management_service.repository.DirectoryUserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves user ids to display information (name, position, avatar) and answers existence checks.
+ * The local {@link DirectoryUser} replica, fed by change events from User-Auth, is consulted first.
+ * Users not yet replicated are fetched from User-Auth in a single batched request and kept in a
+ * short-lived in-process cache, so this keeps working while User-Auth is slow or down.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectoryService {
+    private final UserServiceClient userServiceClient;
+    private final DirectoryUserRepository directoryUserRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, CachedSummary> cache = new ConcurrentHashMap<>();
+
+    @Value("${application.config.user-summary-cache-ttl:60s}")
+    private Duration cacheTtl;
+
+    @Value("${application.config.user-summary-cache-max-size:10000}")
+    private int maxCacheSize;
+
+    // Emails are no longer replicated; drop the column older versions filled
+    @PostConstruct
+    public void dropReplicatedEmail() {
+        try {
+            Boolean present = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                    "WHERE table_name = 'directory_users' AND column_name = 'email')", Boolean.class);
+            if (Boolean.TRUE.equals(present)) {
+                jdbcTemplate.execute("ALTER TABLE directory_users DROP COLUMN email");
+                log.info("Dropped email column from directory_users");
+            }
+        } catch (Exception e) {
+            log.error("Error dropping directory_users.email: {}", e.getMessage(), e);
+        }
+    }
+
+    public Map<Integer, UserSummaryResponse> getUserSummaries(Collection<Integer> userIds, String token) {
+        Map<Integer, UserSummaryResponse> result = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return result;
+        }
+
+        for (DirectoryUser user : directoryUserRepository.findAllById(userIds)) {
+            result.put(user.getUserId(), toSummary(user));
+        }
+
+        Set<Integer> misses = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        for (Integer userId : userIds) {
+            if (result.containsKey(userId)) {
+                continue;
+            }
+            CachedSummary cached = cache.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(userId, cached.summary());
+            } else {
+                misses.add(userId);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        log.info("Fetching {} user summaries from auth service ({} resolved locally)", misses.size(), result.size());
+        try {
+            long expiresAt = now + cacheTtl.toMillis();
+            for (UserSummaryResponse summary : userServiceClient.getUserSummaries(misses, token)) {
+                result.put(summary.getId(), summary);
+                cache.put(summary.getId(), new CachedSummary(summary, expiresAt));
+            }
+        } catch (Exception e) {
+            // Names are decorative; never fail the calling request because User-Auth is unavailable
+            log.warn("Could not fetch user summaries from auth service: {}", e.getMessage());
+        }
+
+        evictIfOversized(now);
+        return result;
+    }
+
+    /**
+     * Checks the local replica first and only asks User-Auth about users it has not seen yet.
+     */
+    public boolean userExists(Integer userId, String token) {
+        if (directoryUserRepository.existsById(userId)) {
+            return true;
+        }
+        log.info("User {} not in local directory, asking auth service", userId);
+        return userServiceClient.userExists(userId, token);
+    }
+
+    @Transactional
+    public void applyChanges(List<UserChangeEvent> events) {
+        Map<Integer, DirectoryUser> existing = directoryUserRepository.findAllById(
+                        events.stream().map(UserChangeEvent::getUserId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(DirectoryUser::getUserId, Function.identity()));
+
+        int applied = 0;
+        for (UserChangeEvent event : events) {
+            DirectoryUser user = existing.get(event.getUserId());
+            if (user != null && user.getLastEventId() >= event.getEventId()) {
+                // Already applied (redelivery) or superseded by a newer event
+                continue;
+            }
+            if (user == null) {
+                user = new DirectoryUser();
+                user.setUserId(event.getUserId());
+                existing.put(event.getUserId(), user);
+            }
+            user.setFirstname(event.getFirstname());
+            user.setLastname(event.getLastname());
+            user.setPosition(event.getPosition());
+            user.setProfileImageUrl(event.getProfileImageUrl());
+            user.setEnabled(event.isEnabled());
+            user.setLastEventId(event.getEventId());
+            user.setSyncedAt(LocalDateTime.now());
+            cache.remove(event.getUserId());
+            applied++;
+        }
+
+        directoryUserRepository.saveAll(existing.values());
+        log.info("Applied {} of {} user change events to local directory", applied, events.size());
+    }
+
+    private UserSummaryResponse toSummary(DirectoryUser user) {
+        UserSummaryResponse summary = new UserSummaryResponse();
+        summary.setId(user.getUserId());
+        summary.setFirstname(user.getFirstname());
+        summary.setLastname(user.getLastname());
+        summary.setPosition(user.getPosition());
+        summary.setProfileImageUrl(user.getProfileImageUrl());
+        return summary;
+    }
+
+    private void evictIfOversized(long now) {
+        if (cache.size() <= maxCacheSize) {
+            return;
+        }
+        cache.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= now);
+        if (cache.size() > maxCacheSize) {
+            cache.clear();
+        }
+    }
+
+    private record CachedSummary(UserSummaryResponse summary, long expiresAt) {
+    }
+}
@@ -3,7 +3,7 @@ package com.TPM.project_management_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "application.config.user-events-key=test-events-key")
 class ProjectManagementServiceApplicationTests {
 
 	@Test
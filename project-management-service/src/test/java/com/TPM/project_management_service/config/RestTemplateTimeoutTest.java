@@ -0,0 +1,129 @@
+package com.TPM.project_management_service.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Points the pooled RestTemplate from AppConfig at a local stub that answers slowly. Calls must
+ * fail within the configured timeouts and give back both the calling thread and the pooled
+ * connection, however the server stalls.
+ */
+class RestTemplateTimeoutTest {
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        // Never answers within the read timeout
+        server.createContext("/hang", exchange -> {
+            sleep(5_000);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        // Sends a byte every 100 ms: the read timeout never fires, only the total deadline can end it
+        server.createContext("/trickle", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 50; i++) {
+                    out.write('x');
+                    out.flush();
+                    sleep(100);
+                }
+            } catch (Exception e) {
+                // Client aborted
+            }
+        });
+        server.createContext("/ok", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        AppConfig config = new AppConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        PoolingHttpClientConnectionManager connectionManager = config.restConnectionManager(
+                4, 4, Duration.ofSeconds(1), Duration.ofMillis(300), Duration.ofMinutes(1), meterRegistry);
+        httpClient = config.restHttpClient(connectionManager, Duration.ofMillis(500), Duration.ofMillis(300), Duration.ofSeconds(30));
+        restTemplate = config.restTemplate(new RestTemplateBuilder(), httpClient, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void hangingServerReleasesCallerThreadsAndConnections() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(callers.submit(() -> restTemplate.getForObject(baseUrl + "/hang", String.class)));
+            }
+            // Twice the pool size: half time out reading, the rest waiting for a connection
+            for (Future<String> call : calls) {
+                ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(3, TimeUnit.SECONDS));
+                assertInstanceOf(RestClientException.class, failure.getCause());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        assertEquals("ok", restTemplate.getForObject(baseUrl + "/ok", String.class));
+    }
+
+    @Test
+    void totalTimeoutAbortsTricklingResponse() {
+        long started = System.nanoTime();
+        assertThrows(RestClientException.class, () -> restTemplate.getForObject(baseUrl + "/trickle", String.class));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(elapsedMillis < 2_500, "Trickling response held the caller for " + elapsedMillis + " ms");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.TPM.project_management_service.controller;
+
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Controllers must answer with DTOs: serialising a JPA entity walks its lazy associations,
+ * which costs extra queries or fails outside a session. Every handler's declared response type
+ * is followed through generics and DTO fields, and no JPA entity may be reachable. A body declared
+ * as Object or a wildcard could hold anything, so it is rejected too.
+ */
+class ControllerResponseTypesTest {
+    private static final String BASE_PACKAGE = "com.TPM.project_management_service";
+
+    @Test
+    void noControllerSerialisesEntities() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        Set<BeanDefinition> controllers = scanner.findCandidateComponents(BASE_PACKAGE);
+        assertFalse(controllers.isEmpty(), "No controllers found");
+
+        List<String> violations = new ArrayList<>();
+        for (BeanDefinition definition : controllers) {
+            Class<?> controller = Class.forName(definition.getBeanClassName());
+            for (Method method : controller.getDeclaredMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+                    String path = controller.getSimpleName() + "." + method.getName();
+                    if (isUntyped(method.getGenericReturnType())) {
+                        violations.add(path + " -> untyped response body");
+                    }
+                    collectEntities(method.getGenericReturnType(), path, new HashSet<>(), violations);
+                }
+            }
+        }
+        assertTrue(violations.isEmpty(), "Entities reachable from controller responses: " + violations);
+    }
+
+    private boolean isUntyped(Type type) {
+        if (type == Object.class || type == ResponseEntity.class || type == HttpEntity.class) {
+            return true;
+        }
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw
+                && HttpEntity.class.isAssignableFrom(raw)) {
+            Type body = parameterized.getActualTypeArguments()[0];
+            return body == Object.class
+                    || (body instanceof WildcardType wildcard && wildcard.getUpperBounds()[0] == Object.class);
+        }
+        return false;
+    }
+
+    private void collectEntities(Type type, String path, Set<Class<?>> visited, List<String> violations) {
+        if (type instanceof ParameterizedType parameterized) {
+            collectEntities(parameterized.getRawType(), path, visited, violations);
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                collectEntities(argument, path, visited, violations);
+            }
+        } else if (type instanceof WildcardType wildcard) {
+            for (Type bound : wildcard.getUpperBounds()) {
+                collectEntities(bound, path, visited, violations);
+            }
+        } else if (type instanceof TypeVariable<?> variable) {
+            for (Type bound : variable.getBounds()) {
+                collectEntities(bound, path, visited, violations);
+            }
+        } else if (type instanceof GenericArrayType array) {
+            collectEntities(array.getGenericComponentType(), path, visited, violations);
+        } else if (type instanceof Class<?> clazz) {
+            if (clazz.isArray()) {
+                collectEntities(clazz.getComponentType(), path, visited, violations);
+                return;
+            }
+            if (clazz.isAnnotationPresent(Entity.class)) {
+                violations.add(path + " -> " + clazz.getSimpleName());
+                return;
+            }
+            // Only the service's own types can lead to entities; JDK and library types are leaves
+            if (clazz.isEnum() || !clazz.getName().startsWith(BASE_PACKAGE) || !visited.add(clazz)) {
+                return;
+            }
+            for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        collectEntities(field.getGenericType(), path + "." + field.getName(), visited, violations);
+                    }
+                }
+            }
+        }
+    }
+}
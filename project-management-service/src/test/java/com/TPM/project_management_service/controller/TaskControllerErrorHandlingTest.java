@@ -0,0 +1,69 @@
+package com.TPM.project_management_service.controller;
+
+import com.TPM.project_management_service.exception.TaskNotFoundException;
+import com.TPM.project_management_service.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The controller's catch-all handler must leave request binding errors to Spring, which answers
+ * them with 400, and only turn failures of the service into 500.
+ */
+class TaskControllerErrorHandlingTest {
+    private static final String TOKEN = "Bearer test";
+
+    private final TaskService taskService = mock(TaskService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService)).build();
+    }
+
+    @Test
+    void missingAuthorizationHeaderIsBadRequest() throws Exception {
+        mockMvc.perform(get("/projects/1/tasks"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nonNumericProjectIdIsBadRequest() throws Exception {
+        mockMvc.perform(get("/projects/abc/tasks").header("Authorization", TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedBodyIsBadRequest() throws Exception {
+        mockMvc.perform(post("/projects/1/tasks").header("Authorization", TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void missingTaskIsNotFound() throws Exception {
+        when(taskService.getTaskById(1L, 2L, TOKEN)).thenThrow(new TaskNotFoundException("Task not found with id: 2"));
+
+        mockMvc.perform(get("/projects/1/tasks/2").header("Authorization", TOKEN))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Task not found with id: 2"));
+    }
+
+    @Test
+    void serviceFailureIsServerError() throws Exception {
+        when(taskService.getTaskById(1L, 2L, TOKEN)).thenThrow(new IllegalStateException("boom"));
+
+        mockMvc.perform(get("/projects/1/tasks/2").header("Authorization", TOKEN))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Error processing task request: boom"));
+    }
+}
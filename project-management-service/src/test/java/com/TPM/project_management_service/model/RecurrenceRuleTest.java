@@ -0,0 +1,136 @@
+package com.TPM.project_management_service.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurrenceRuleTest {
+    // A Monday
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 1, 5, 9, 0);
+    private static final LocalDateTime WEDNESDAY = LocalDateTime.of(2026, 1, 7, 9, 0);
+    private static final LocalDateTime FAR_PAST = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    static Stream<Arguments> finiteSeries() {
+        return Stream.of(
+                Arguments.of("FREQ=DAILY;COUNT=3", MONDAY,
+                        List.of(jan(5), jan(6), jan(7))),
+                Arguments.of("RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=5", MONDAY,
+                        List.of(jan(5), jan(7), jan(9), jan(12), jan(14))),
+                Arguments.of("FREQ=WEEKLY;BYDAY=FR,MO,WE;COUNT=6", MONDAY,
+                        List.of(jan(5), jan(7), jan(9), jan(12), jan(14), jan(16))),
+                // Monday of the first week precedes the start and is not an occurrence
+                Arguments.of("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=3", WEDNESDAY,
+                        List.of(jan(7), jan(12), jan(14))),
+                Arguments.of("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH;WKST=MO;UNTIL=20260131", MONDAY,
+                        List.of(jan(6), jan(8), jan(20), jan(22))),
+                // UNTIL is inclusive, and a trailing Z is read as local time
+                Arguments.of("FREQ=DAILY;UNTIL=20260107T090000Z", MONDAY,
+                        List.of(jan(5), jan(6), jan(7))),
+                Arguments.of("FREQ=DAILY;UNTIL=20260107T085959", MONDAY,
+                        List.of(jan(5), jan(6))),
+                Arguments.of("freq=weekly;until=20260120", MONDAY,
+                        List.of(jan(5), jan(12), jan(19))),
+                // Shorter months clamp to their last day instead of being skipped
+                Arguments.of("FREQ=MONTHLY;COUNT=4", LocalDateTime.of(2026, 1, 31, 10, 0),
+                        List.of(LocalDateTime.of(2026, 1, 31, 10, 0), LocalDateTime.of(2026, 2, 28, 10, 0),
+                                LocalDateTime.of(2026, 3, 31, 10, 0), LocalDateTime.of(2026, 4, 30, 10, 0))),
+                Arguments.of("FREQ=YEARLY;COUNT=3", LocalDateTime.of(2024, 2, 29, 12, 0),
+                        List.of(LocalDateTime.of(2024, 2, 29, 12, 0), LocalDateTime.of(2025, 2, 28, 12, 0),
+                                LocalDateTime.of(2026, 2, 28, 12, 0)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("finiteSeries")
+    void enumeratesFiniteSeries(String rule, LocalDateTime start, List<LocalDateTime> expected) {
+        assertEquals(expected, RecurrenceRule.parse(rule).occurrencesBetween(start, FAR_PAST, FAR_FUTURE, Set.of(), 100));
+    }
+
+    @ParameterizedTest
+    @MethodSource("finiteSeries")
+    void computesLastOccurrenceWithoutEnumerating(String rule, LocalDateTime start, List<LocalDateTime> expected) {
+        assertEquals(expected.get(expected.size() - 1), RecurrenceRule.parse(rule).lastOccurrence(start));
+    }
+
+    static Stream<Arguments> windows() {
+        return Stream.of(
+                // Jumps into an old series: every third day since 2020-01-01
+                Arguments.of("FREQ=DAILY;INTERVAL=3", LocalDateTime.of(2020, 1, 1, 8, 0),
+                        LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 7, 23, 59), Set.of(), 100,
+                        List.of(LocalDateTime.of(2026, 1, 2, 8, 0), LocalDateTime.of(2026, 1, 5, 8, 0))),
+                // Occurrences before the window still count towards COUNT
+                Arguments.of("FREQ=DAILY;COUNT=3", MONDAY, jan(7), FAR_FUTURE, Set.of(), 100,
+                        List.of(jan(7))),
+                Arguments.of("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=5", MONDAY, jan(10), FAR_FUTURE, Set.of(), 100,
+                        List.of(jan(12), jan(14))),
+                // Window bounds are inclusive
+                Arguments.of("FREQ=DAILY", MONDAY, jan(6), jan(8), Set.of(), 100,
+                        List.of(jan(6), jan(7), jan(8))),
+                // Exceptions are left out but still use up COUNT
+                Arguments.of("FREQ=DAILY;COUNT=3", MONDAY, FAR_PAST, FAR_FUTURE, Set.of(jan(6)), 100,
+                        List.of(jan(5), jan(7))),
+                Arguments.of("FREQ=DAILY", MONDAY, FAR_PAST, FAR_FUTURE, Set.of(), 2,
+                        List.of(jan(5), jan(6))),
+                Arguments.of("FREQ=DAILY;COUNT=3", MONDAY, LocalDateTime.of(2026, 2, 1, 0, 0), FAR_FUTURE, Set.of(), 100,
+                        List.of())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("windows")
+    void enumeratesOnlyTheWindow(String rule, LocalDateTime start, LocalDateTime from, LocalDateTime to,
+                                 Set<LocalDateTime> exceptions, int limit, List<LocalDateTime> expected) {
+        assertEquals(expected, RecurrenceRule.parse(rule).occurrencesBetween(start, from, to, exceptions, limit));
+    }
+
+    @Test
+    void openEndedSeriesHasNoLastOccurrence() {
+        assertNull(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=TU").lastOccurrence(MONDAY));
+    }
+
+    @Test
+    void largestAllowedSeriesStaysInRange() {
+        assertEquals(MONDAY.plusYears(1000L * 4999),
+                RecurrenceRule.parse("FREQ=YEARLY;INTERVAL=1000;COUNT=5000").lastOccurrence(MONDAY));
+        assertEquals(MONDAY.plusWeeks(1000L * 1666).plusDays(2),
+                RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=1000;BYDAY=MO,WE,FR;COUNT=5000").lastOccurrence(MONDAY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            " ",
+            "FREQ=HOURLY",
+            "INTERVAL=2",
+            "FREQ=DAILY;INTERVAL=0",
+            "FREQ=DAILY;INTERVAL=1001",
+            "FREQ=DAILY;COUNT=0",
+            "FREQ=DAILY;COUNT=5001",
+            "FREQ=DAILY;COUNT",
+            "FREQ=DAILY;COUNT=2;UNTIL=20260101",
+            "FREQ=DAILY;UNTIL=2026-01-01",
+            "FREQ=DAILY;BYDAY=MO",
+            "FREQ=WEEKLY;BYDAY=1MO",
+            "FREQ=WEEKLY;BYDAY=M",
+            "FREQ=WEEKLY;WKST=SU",
+            "FREQ=MONTHLY;BYMONTHDAY=1"
+    })
+    void rejectsUnsupportedOrOutOfRangeRules(String rule) {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(rule));
+    }
+
+    private static LocalDateTime jan(int day) {
+        return LocalDateTime.of(2026, 1, day, 9, 0);
+    }
+}
@@ -0,0 +1,235 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.client.UserProfileResponse;
+import com.TPM.project_management_service.dto.BulkAiPlanRequest;
+import com.TPM.project_management_service.dto.BulkAiPlanResponse;
+import com.TPM.project_management_service.model.AiPlanJob;
+import com.TPM.project_management_service.model.AiPlanJobStatus;
+import com.TPM.project_management_service.model.AiTaskPlan;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.repository.AiPlanJobRepository;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import com.TPM.project_management_service.repository.TaskRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives submitBulk against mocked repositories and model calls. Bulk batches are collected
+ * instead of executed, so a test can inspect the response before running them.
+ */
+class AiPlanJobServiceBulkTest {
+    private static final Long PROJECT_ID = 10L;
+    private static final Integer USER_ID = 7;
+    private static final String TOKEN = "Bearer test";
+
+    private final AiPlanJobRepository aiPlanJobRepository = mock(AiPlanJobRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final AiTaskPlanCache aiTaskPlanCache = mock(AiTaskPlanCache.class);
+    private final AiTaskAssistantService aiTaskAssistantService = mock(AiTaskAssistantService.class);
+    private final Map<Long, AiPlanJob> jobs = new LinkedHashMap<>();
+    private final Map<Long, Task> tasks = new LinkedHashMap<>();
+    private final List<Runnable> bulkQueue = new ArrayList<>();
+    private final Project project = new Project();
+    private AiPlanJobService service;
+
+    @BeforeEach
+    void setUp() {
+        ProjectRepository projectRepository = mock(ProjectRepository.class);
+        CurrentUserService currentUserService = mock(CurrentUserService.class);
+        service = new AiPlanJobService(aiPlanJobRepository, projectRepository, mock(ProjectMemberRepository.class),
+                taskRepository, aiTaskPlanCache, aiTaskAssistantService, currentUserService,
+                Runnable::run, bulkQueue::add, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "bulkMaxTasks", 200);
+        ReflectionTestUtils.setField(service, "packSize", 5);
+        ReflectionTestUtils.setField(service, "packMaxChars", 1500);
+
+        project.setId(PROJECT_ID);
+        project.setOwnerId(USER_ID);
+        UserProfileResponse.User user = new UserProfileResponse.User();
+        user.setId(USER_ID);
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUser(user);
+        when(currentUserService.resolve(TOKEN)).thenReturn(profile);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+
+        when(taskRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Task> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                if (tasks.containsKey(id)) {
+                    found.add(tasks.get(id));
+                }
+            }
+            return found;
+        });
+        when(aiPlanJobRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AiPlanJob> saved = invocation.getArgument(0);
+            saved.forEach(this::persist);
+            return saved;
+        });
+        when(aiPlanJobRepository.save(any(AiPlanJob.class))).thenAnswer(invocation -> persist(invocation.getArgument(0)));
+        when(aiPlanJobRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<AiPlanJob> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                found.add(jobs.get(id));
+            }
+            return found;
+        });
+        when(aiPlanJobRepository.findByTaskIdInAndStatusIn(anyList(), any())).thenReturn(List.of());
+        when(aiTaskPlanCache.findFresh(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(aiTaskAssistantService.contentHash(any(Task.class))).thenReturn("hash");
+    }
+
+    @Test
+    void packsSmallTasksAndPlansTasksLeftOutOfTheAnswerAlone() {
+        for (long id = 1; id <= 7; id++) {
+            task(id, "Short description");
+        }
+        Task large = task(8L, "x".repeat(2000));
+        // The packed answer leaves out task 3
+        when(aiTaskAssistantService.requestTaskPlans(anyList())).thenAnswer(invocation -> {
+            List<Task> packed = invocation.getArgument(0);
+            return packed.stream()
+                    .filter(task -> task.getId() != 3L)
+                    .collect(Collectors.toMap(Task::getId, task -> "Packed plan " + task.getId()));
+        });
+        when(aiTaskAssistantService.requestTaskPlan(any(Task.class), eq(true)))
+                .thenAnswer(invocation -> "Own plan " + ((Task) invocation.getArgument(0)).getId());
+
+        BulkAiPlanResponse response = service.submitBulk(PROJECT_ID, request(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L)), TOKEN);
+
+        assertEquals(8, response.getQueuedCount());
+        // Tasks 1-5 and 6-7 are packed, the large task 8 runs alone
+        assertEquals(3, response.getBatchCount());
+        bulkQueue.forEach(Runnable::run);
+
+        verify(aiTaskAssistantService).requestTaskPlan(tasks.get(3L), true);
+        verify(aiTaskAssistantService).requestTaskPlan(large, true);
+        for (long id : List.of(1L, 2L, 4L, 5L, 6L, 7L)) {
+            verify(aiTaskAssistantService, never()).requestTaskPlan(tasks.get(id), true);
+        }
+        assertEquals("Own plan 3", jobForTask(3L).getPlan());
+        assertEquals("Own plan 8", jobForTask(8L).getPlan());
+        assertEquals("Packed plan 6", jobForTask(6L).getPlan());
+        assertTrue(jobs.values().stream().allMatch(job -> job.getStatus() == AiPlanJobStatus.COMPLETED));
+    }
+
+    @Test
+    void rateLimitedPackedCallFailsTheBatchWithoutSingleCalls() {
+        task(1L, "One");
+        task(2L, "Two");
+        when(aiTaskAssistantService.requestTaskPlans(anyList()))
+                .thenThrow(RequestNotPermitted.createRequestNotPermitted(RateLimiter.ofDefaults("test")));
+
+        service.submitBulk(PROJECT_ID, request(List.of(1L, 2L)), TOKEN);
+        bulkQueue.forEach(Runnable::run);
+
+        verify(aiTaskAssistantService, never()).requestTaskPlan(any(Task.class), eq(true));
+        for (AiPlanJob job : jobs.values()) {
+            assertEquals(AiPlanJobStatus.FAILED, job.getStatus());
+            assertEquals("AI rate limit reached; try again later", job.getErrorMessage());
+        }
+    }
+
+    @Test
+    void reusesJobsInFlightAndStoredPlans() {
+        task(1L, "Already queued");
+        task(2L, "Already planned");
+        task(3L, "New");
+        AiPlanJob running = new AiPlanJob();
+        running.setTaskId(1L);
+        running.setStatus(AiPlanJobStatus.RUNNING);
+        persist(running);
+        when(aiPlanJobRepository.findByTaskIdInAndStatusIn(anyList(), any())).thenReturn(List.of(running));
+        AiTaskPlan stored = new AiTaskPlan();
+        stored.setPlan("Stored plan");
+        when(aiTaskPlanCache.findFresh(2L, "hash")).thenReturn(Optional.of(stored));
+
+        BulkAiPlanResponse response = service.submitBulk(PROJECT_ID, request(List.of(1L, 2L, 3L)), TOKEN);
+
+        assertEquals(1, response.getInFlightCount());
+        assertEquals(1, response.getCachedCount());
+        assertEquals(1, response.getQueuedCount());
+        assertEquals(3, response.getJobs().size());
+        // Only task 3 got a new job; the running job for task 1 is returned as it is
+        assertEquals(3, jobs.size());
+        assertEquals(1, bulkQueue.size());
+    }
+
+    @Test
+    void rejectsIncompleteOrEmptyDeadlineWindow() {
+        BulkAiPlanRequest onlyFrom = new BulkAiPlanRequest();
+        onlyFrom.setDeadlineFrom(LocalDateTime.of(2026, 3, 2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.submitBulk(PROJECT_ID, onlyFrom, TOKEN));
+
+        BulkAiPlanRequest reversed = new BulkAiPlanRequest();
+        reversed.setDeadlineFrom(LocalDateTime.of(2026, 3, 16, 0, 0));
+        reversed.setDeadlineTo(LocalDateTime.of(2026, 3, 2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.submitBulk(PROJECT_ID, reversed, TOKEN));
+    }
+
+    @Test
+    void rejectsTasksOfAnotherProject() {
+        Task foreign = task(1L, "Elsewhere");
+        Project other = new Project();
+        other.setId(99L);
+        foreign.setProject(other);
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitBulk(PROJECT_ID, request(List.of(1L)), TOKEN));
+    }
+
+    private AiPlanJob persist(AiPlanJob job) {
+        if (job.getId() == null) {
+            job.setId((long) jobs.size() + 100);
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private AiPlanJob jobForTask(Long taskId) {
+        return jobs.values().stream().filter(job -> job.getTaskId().equals(taskId)).findFirst().orElseThrow();
+    }
+
+    private Task task(Long id, String description) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription(description);
+        task.setProject(project);
+        tasks.put(id, task);
+        return task;
+    }
+
+    private static BulkAiPlanRequest request(List<Long> taskIds) {
+        BulkAiPlanRequest request = new BulkAiPlanRequest();
+        request.setTaskIds(taskIds);
+        return request;
+    }
+}
@@ -0,0 +1,203 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.model.Task;
+import com.TPM.project_management_service.model.TaskPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs streamTaskPlan against a local stub of the chat completions API. The stub holds the rest
+ * of its stream back until the first token has reached the caller, so the test only passes if
+ * tokens are relayed as they arrive rather than after the response completes. The same stub
+ * answers packed requestTaskPlans calls with a fixed completion.
+ */
+class AiTaskAssistantServiceStreamingTest {
+    private static final String PATH = "/v1/chat/completions";
+
+    private HttpServer server;
+    private AiTaskAssistantService service;
+    private final CountDownLatch firstTokenReceived = new CountDownLatch(1);
+    private volatile int status = 200;
+    private volatile boolean releasedByFirstToken;
+    // When set, the stub answers with this non-streamed completion
+    private volatile String completion;
+    // When set, the stub goes quiet after the first chunk, or keeps sending blank keep-alive lines
+    private volatile boolean stall;
+    private volatile boolean keepAlive;
+    private final CountDownLatch streamAborted = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(PATH, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (status != 200) {
+                byte[] body = "{\"error\":\"overloaded\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+                return;
+            }
+            if (completion != null) {
+                byte[] body = new ObjectMapper().writeValueAsBytes(
+                        Map.of("choices", List.of(Map.of("message", Map.of("role", "assistant", "content", completion)))));
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            // Length 0 means chunked, so every flush reaches the client immediately
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                writeChunk(out, "Step 1");
+                if (stall || keepAlive) {
+                    holdStream(out);
+                    return;
+                }
+                releasedByFirstToken = firstTokenReceived.await(5, TimeUnit.SECONDS);
+                writeChunk(out, ": plan");
+                out.write("data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}\n\n".getBytes(StandardCharsets.UTF_8));
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        service = new AiTaskAssistantService(new RestTemplate(), HttpClient.newHttpClient(), new ObjectMapper(),
+                RateLimiterRegistry.ofDefaults());
+        ReflectionTestUtils.setField(service, "geminiBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(service, "completionsPath", PATH);
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "model", "test-model");
+        ReflectionTestUtils.setField(service, "streamTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "streamIdleTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void relaysTokensBeforeTheCompletionFinishes() throws Exception {
+        List<String> tokens = new CopyOnWriteArrayList<>();
+        String plan = service.streamTaskPlan(task(), token -> {
+            tokens.add(token);
+            firstTokenReceived.countDown();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Step 1", ": plan"), tokens);
+        assertEquals("Step 1: plan", plan);
+        // The stub only finished because the first token had already arrived
+        assertTrue(releasedByFirstToken);
+    }
+
+    @Test
+    void failsOnErrorStatus() {
+        status = 503;
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> service.streamTaskPlan(task(), token -> { }).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains("503"));
+    }
+
+    @Test
+    void failsAndClosesTheConnectionWhenTheStreamGoesQuiet() throws Exception {
+        stall = true;
+        ReflectionTestUtils.setField(service, "streamIdleTimeout", Duration.ofMillis(300));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> service.streamTaskPlan(task(), token -> { }).get(10, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertTrue(streamAborted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancellingThePlanClosesTheConnection() throws Exception {
+        keepAlive = true;
+        CountDownLatch firstToken = new CountDownLatch(1);
+        CompletableFuture<String> plan = service.streamTaskPlan(task(), token -> firstToken.countDown());
+        assertTrue(firstToken.await(5, TimeUnit.SECONDS));
+
+        plan.cancel(true);
+
+        // The stub keeps writing until its writes fail on the closed connection
+        assertTrue(streamAborted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void packedPlansLeaveOutTasksMissingFromTheAnswer() {
+        completion = "{\"1\": \"Plan for one\", \"3\": \"Plan for three\", \"9\": \"Not requested\"}";
+        Map<Long, String> plans = service.requestTaskPlans(List.of(task(1L), task(2L), task(3L)));
+
+        // Task 2 is absent, so the caller plans it on its own; the unrequested id is ignored
+        assertEquals(Map.of(1L, "Plan for one", 3L, "Plan for three"), plans);
+    }
+
+    @Test
+    void packedPlansFailOnTruncatedAnswer() {
+        completion = "{\"1\": \"Plan for one\", \"2\": \"Plan fo";
+        assertThrows(IllegalStateException.class, () -> service.requestTaskPlans(List.of(task(1L), task(2L))));
+    }
+
+    private void holdStream(OutputStream out) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            try {
+                // A lone ':' never completes a line, so the client sees no data while the stub stalls
+                out.write((keepAlive ? "\n" : ":").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                streamAborted.countDown();
+                return;
+            }
+        }
+    }
+
+    private void writeChunk(OutputStream out, String content) throws IOException {
+        out.write(("data: {\"choices\":[{\"delta\":{\"content\":\"" + content + "\"}}]}\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private Task task() {
+        return task(1L);
+    }
+
+    private Task task(Long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Write release notes");
+        task.setPriority(TaskPriority.MEDIUM);
+        return task;
+    }
+}
@@ -0,0 +1,111 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.client.UserProfileResponse;
+import com.TPM.project_management_service.client.UserServiceClient;
+import com.TPM.project_management_service.model.DirectoryUser;
+import com.TPM.project_management_service.repository.DirectoryUserRepository;
+import com.TPM.project_management_service.security.JwtValidator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CurrentUserServiceTest {
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String OTHER_SECRET = "5A7134743777217A25432A462D4A614E645267556B58703273357638792F423F";
+    private static final int USER_ID = 42;
+
+    private final DirectoryUserRepository directoryUserRepository = mock(DirectoryUserRepository.class);
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private CurrentUserService service;
+
+    @BeforeEach
+    void setUp() {
+        JwtValidator jwtValidator = new JwtValidator();
+        ReflectionTestUtils.setField(jwtValidator, "secretKey", SECRET);
+        service = new CurrentUserService(jwtValidator, directoryUserRepository, userServiceClient);
+    }
+
+    @Test
+    void resolvesReplicatedUserWithoutCallingAuthService() {
+        when(directoryUserRepository.findById(USER_ID)).thenReturn(Optional.of(directoryUser(true)));
+
+        UserProfileResponse profile = service.resolve("Bearer " + token(SECRET, USER_ID, 60_000));
+
+        assertEquals(USER_ID, profile.getUser().getId());
+        assertEquals("Ada", profile.getUser().getFirstname());
+        verify(userServiceClient, never()).getUserProfile(anyString());
+    }
+
+    @Test
+    void fallsBackWhenTokenHasNoUserId() {
+        assertFallsBack(token(SECRET, null, 60_000));
+    }
+
+    @Test
+    void fallsBackWhenUserIsNotReplicated() {
+        when(directoryUserRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        assertFallsBack(token(SECRET, USER_ID, 60_000));
+    }
+
+    @Test
+    void fallsBackWhenUserIsDisabled() {
+        when(directoryUserRepository.findById(USER_ID)).thenReturn(Optional.of(directoryUser(false)));
+        assertFallsBack(token(SECRET, USER_ID, 60_000));
+    }
+
+    @Test
+    void fallsBackForExpiredOrForeignTokens() {
+        when(directoryUserRepository.findById(USER_ID)).thenReturn(Optional.of(directoryUser(true)));
+        assertFallsBack(token(SECRET, USER_ID, -60_000));
+        assertFallsBack(token(OTHER_SECRET, USER_ID, 60_000));
+    }
+
+    private void assertFallsBack(String token) {
+        UserProfileResponse remote = new UserProfileResponse();
+        when(userServiceClient.getUserProfile(token)).thenReturn(remote);
+        assertSame(remote, service.resolve(token));
+    }
+
+    private String token(String secret, Integer userId, long validForMillis) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userId != null) {
+            claims.put("userId", userId);
+        }
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("ada@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + validForMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private DirectoryUser directoryUser(boolean enabled) {
+        DirectoryUser user = new DirectoryUser();
+        user.setUserId(USER_ID);
+        user.setFirstname("Ada");
+        user.setLastname("Lovelace");
+        user.setEnabled(enabled);
+        user.setLastEventId(1L);
+        user.setSyncedAt(LocalDateTime.now());
+        return user;
+    }
+}
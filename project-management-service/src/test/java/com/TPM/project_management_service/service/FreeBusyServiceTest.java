@@ -0,0 +1,228 @@
+package com.TPM.project_management_service.service;
+
+import com.TPM.project_management_service.client.UserProfileResponse;
+import com.TPM.project_management_service.dto.FreeBusyResponse;
+import com.TPM.project_management_service.model.CalendarEventType;
+import com.TPM.project_management_service.model.Project;
+import com.TPM.project_management_service.model.ProjectMember;
+import com.TPM.project_management_service.repository.CalendarEventRepository;
+import com.TPM.project_management_service.repository.CalendarEventView;
+import com.TPM.project_management_service.repository.ProjectMemberRepository;
+import com.TPM.project_management_service.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives getFreeBusy with stubbed repositories. Windows lie in the future, so slot search is
+ * not moved to the current time.
+ */
+class FreeBusyServiceTest {
+    private static final String TOKEN = "Bearer test";
+    private static final Long PROJECT_ID = 1L;
+    private static final Long CALENDAR_ID = 10L;
+    private static final Long OTHER_CALENDAR_ID = 99L;
+    private static final int OWNER_ID = 7;
+    private static final int MEMBER_ID = 8;
+    private static final LocalDateTime DAY = LocalDateTime.of(2100, 3, 1, 0, 0);
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ProjectMemberRepository projectMemberRepository = mock(ProjectMemberRepository.class);
+    private final CalendarEventRepository calendarEventRepository = mock(CalendarEventRepository.class);
+    private final ActiveTimerRegistry activeTimerRegistry = mock(ActiveTimerRegistry.class);
+    private final List<CalendarEventView> events = new ArrayList<>();
+    private FreeBusyService service;
+
+    @BeforeEach
+    void setUp() {
+        Project project = new Project();
+        project.setId(PROJECT_ID);
+        project.setOwnerId(OWNER_ID);
+        when(projectRepository.findById(PROJECT_ID)).thenReturn(Optional.of(project));
+        members(MEMBER_ID);
+
+        ProjectCalendarProvisioner provisioner = mock(ProjectCalendarProvisioner.class);
+        when(provisioner.calendarIdFor(project)).thenReturn(CALENDAR_ID);
+        when(calendarEventRepository.findBlockingOverlapping(eq(CALENDAR_ID), anyCollection(), any(), any())).thenReturn(events);
+        when(calendarEventRepository.findBlockingSeriesOverlapping(eq(CALENDAR_ID), anyCollection(), any(), any())).thenReturn(List.of());
+        when(activeTimerRegistry.getRunning(anyInt())).thenReturn(Optional.empty());
+
+        UserProfileResponse.User user = new UserProfileResponse.User();
+        user.setId(OWNER_ID);
+        UserProfileResponse profile = new UserProfileResponse();
+        profile.setUser(user);
+        CurrentUserService currentUserService = mock(CurrentUserService.class);
+        when(currentUserService.resolve(TOKEN)).thenReturn(profile);
+
+        service = new FreeBusyService(projectRepository, projectMemberRepository, provisioner, calendarEventRepository,
+                new CalendarOccurrenceService(), activeTimerRegistry, currentUserService);
+        ReflectionTestUtils.setField(service, "maxWindow", Duration.ofDays(100));
+        ReflectionTestUtils.setField(service, "runningTimerHold", Duration.ofMinutes(30));
+    }
+
+    @Test
+    void touchingSpansMergeIntoOne() {
+        event(OTHER_CALENDAR_ID, MEMBER_ID, at(9, 0), at(10, 0));
+        event(OTHER_CALENDAR_ID, MEMBER_ID, at(10, 0), at(10, 30));
+        event(OTHER_CALENDAR_ID, MEMBER_ID, at(10, 15), at(10, 20));
+
+        FreeBusyResponse response = freeBusy(at(8, 0), at(12, 0), 30, 5, 15);
+
+        assertEquals(List.of(interval(at(9, 0), at(10, 30))), busyOf(response, MEMBER_ID));
+        assertEquals(List.of(), busyOf(response, OWNER_ID));
+        assertEquals(List.of(interval(at(9, 0), at(10, 30))), response.getBusy());
+    }
+
+    @Test
+    void projectCalendarEventsBlockEveryMember() {
+        event(CALENDAR_ID, OWNER_ID, at(9, 0), at(9, 30));
+
+        FreeBusyResponse response = freeBusy(at(8, 0), at(12, 0), 30, 5, 15);
+
+        assertEquals(List.of(interval(at(9, 0), at(9, 30))), busyOf(response, OWNER_ID));
+        assertEquals(List.of(interval(at(9, 0), at(9, 30))), busyOf(response, MEMBER_ID));
+    }
+
+    @Test
+    void slotMayEndExactlyAtTheWindowEnd() {
+        event(CALENDAR_ID, OWNER_ID, at(8, 0), at(8, 30));
+
+        FreeBusyResponse response = freeBusy(at(8, 0), at(9, 0), 30, 5, 15);
+
+        assertEquals(List.of(interval(at(8, 30), at(9, 0))), response.getFreeSlots());
+    }
+
+    @Test
+    void slotsFollowAGranularityThatDoesNotDivideAnHour() {
+        event(CALENDAR_ID, OWNER_ID, at(8, 0), at(8, 10));
+
+        // The 25 minute grid is anchored at midnight: 08:20, 08:45, 09:10, 09:35, 10:00
+        FreeBusyResponse response = freeBusy(at(8, 0), at(10, 0), 30, 5, 25);
+
+        assertEquals(List.of(interval(at(8, 20), at(8, 50)), interval(at(9, 10), at(9, 40))), response.getFreeSlots());
+    }
+
+    @Test
+    void busySpansCrossingTheWindowAreClipped() {
+        event(OTHER_CALENDAR_ID, MEMBER_ID, at(7, 0), at(9, 0));
+        event(OTHER_CALENDAR_ID, OWNER_ID, at(11, 45), at(13, 0));
+
+        FreeBusyResponse response = freeBusy(at(8, 0), at(12, 0), 60, 5, 15);
+
+        assertEquals(List.of(interval(at(8, 0), at(9, 0)), interval(at(11, 45), at(12, 0))), response.getBusy());
+        assertEquals(List.of(interval(at(9, 0), at(10, 0)), interval(at(10, 0), at(11, 0))), response.getFreeSlots());
+    }
+
+    @Test
+    void slotsThatDoNotFitAGapSkipPastTheNextBusySpan() {
+        event(CALENDAR_ID, OWNER_ID, at(8, 20), at(9, 0));
+        event(CALENDAR_ID, OWNER_ID, at(9, 40), at(10, 0));
+
+        FreeBusyResponse response = freeBusy(at(8, 0), at(11, 0), 45, 2, 5);
+
+        assertEquals(List.of(interval(at(10, 0), at(10, 45))), response.getFreeSlots());
+    }
+
+    @Test
+    void computesAMonthForAHundredMembersWithinMilliseconds() {
+        Integer[] memberIds = new Integer[99];
+        for (int i = 0; i < memberIds.length; i++) {
+            memberIds[i] = 100 + i;
+        }
+        members(memberIds);
+        Random random = new Random(42);
+        // Four personal meetings per member and working day, plus two team meetings a day
+        for (int day = 0; day < 31; day++) {
+            LocalDateTime date = DAY.plusDays(day);
+            for (int userId : memberIds) {
+                for (int i = 0; i < 4; i++) {
+                    LocalDateTime start = date.plusHours(8).plusMinutes(15L * random.nextInt(36));
+                    event(OTHER_CALENDAR_ID, userId, start, start.plusMinutes(15L * (1 + random.nextInt(6))));
+                }
+            }
+            event(CALENDAR_ID, OWNER_ID, date.plusHours(9), date.plusHours(9).plusMinutes(30));
+            event(CALENDAR_ID, OWNER_ID, date.plusHours(14), date.plusHours(15));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            freeBusy(DAY, DAY.plusDays(31), 30, 10, 15);
+        }
+        long started = System.nanoTime();
+        FreeBusyResponse response = freeBusy(DAY, DAY.plusDays(31), 30, 10, 15);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(100, response.getMembers().size());
+        assertEquals(10, response.getFreeSlots().size());
+        // 12,338 events expand to 18,476 member spans; warm runs take 20-60 ms, so this only catches regressions
+        assertTrue(millis < 250, "free/busy for 100 members over a month took " + millis + " ms");
+    }
+
+    private FreeBusyResponse freeBusy(LocalDateTime start, LocalDateTime end, int durationMinutes, int count, int granularityMinutes) {
+        return service.getFreeBusy(PROJECT_ID, start, end, durationMinutes, count, granularityMinutes, TOKEN);
+    }
+
+    private void members(Integer... userIds) {
+        List<ProjectMember> members = new ArrayList<>();
+        for (Integer userId : userIds) {
+            ProjectMember member = new ProjectMember();
+            member.setUserId(userId);
+            members.add(member);
+        }
+        when(projectMemberRepository.findByProjectId(PROJECT_ID)).thenReturn(members);
+        when(projectMemberRepository.findByProjectIdAndUserId(PROJECT_ID, OWNER_ID)).thenReturn(Optional.empty());
+    }
+
+    private void event(Long calendarId, Integer createdBy, LocalDateTime start, LocalDateTime end) {
+        events.add(new Event(calendarId, createdBy, start, end));
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+
+    private static FreeBusyResponse.Interval interval(LocalDateTime start, LocalDateTime end) {
+        return new FreeBusyResponse.Interval(start, end);
+    }
+
+    private static List<FreeBusyResponse.Interval> busyOf(FreeBusyResponse response, int userId) {
+        return response.getMembers().stream()
+                .filter(member -> member.getUserId() == userId)
+                .findFirst()
+                .orElseThrow()
+                .getBusy();
+    }
+
+    private record Event(Long calendarId, Integer createdBy, LocalDateTime start, LocalDateTime end) implements CalendarEventView {
+        @Override public Long getId() { return null; }
+        @Override public Long getCalendarId() { return calendarId; }
+        @Override public String getTitle() { return "Busy"; }
+        @Override public String getDescription() { return null; }
+        @Override public CalendarEventType getEventType() { return CalendarEventType.MEETING; }
+        @Override public LocalDateTime getStartTime() { return start; }
+        @Override public LocalDateTime getEndTime() { return end; }
+        @Override public Boolean getAllDay() { return false; }
+        @Override public String getLocation() { return null; }
+        @Override public Integer getCreatedBy() { return createdBy; }
+        @Override public LocalDateTime getCreatedAt() { return null; }
+        @Override public LocalDateTime getUpdatedAt() { return null; }
+        @Override public Long getTaskId() { return null; }
+        @Override public String getRecurrenceRule() { return null; }
+        @Override public String getRecurrenceExceptions() { return null; }
+    }
+}